@@ -1,63 +1,82 @@
-package edu.kit.informatik;
-
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
-
-/**
- * This class provides some simple methods for input/output from and to a terminal.
- * 
- * Never modify this class, never upload it to Praktomat. This is only for your local use. If an assignment tells you to
- * use this class for input and output never use System.out or System.in in the same assignment.
- * 
- * @author ITI, VeriAlg Group
- * @author IPD, SDQ Group
- * @version 4
- */
-public final class Terminal {
-
-    /**
-     * BufferedReader for reading from standard input line-by-line.
-     */
-    private static BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
-
-    /**
-     * Private constructor to avoid object generation.
-     */
-    private Terminal() {
-    }
-
-    /**
-     * Print a String to the standard output.
-     * 
-     * The String out must not be null.
-     * 
-     * @param out
-     *            The string to be printed.
-     */
-    public static void printLine(String out) {
-        System.out.println(out);
-    }
-
-    /**
-     * Reads a line from standard input.
-     * 
-     * Returns null at the end of the standard input.
-     * 
-     * Use Ctrl+D to indicate the end of the standard input.
-     * 
-     * @return The next line from the standard input or null.
-     */
-    public static String readLine() {
-        try {
-            return in.readLine();
-        } catch (IOException e) {
-            /*
-             * rethrow unchecked (!) exception to prevent students from being forced to use Exceptions before they have
-             * been introduced in the lecture.
-             */
-            throw new RuntimeException(e);
-        }
-    }
-
-}
+package edu.kit.informatik;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+/**
+ * This class provides some simple methods for input/output from and to a terminal.
+ * 
+ * Never modify this class, never upload it to Praktomat. This is only for your local use. If an assignment tells you to
+ * use this class for input and output never use System.out or System.in in the same assignment.
+ * 
+ * @author ITI, VeriAlg Group
+ * @author IPD, SDQ Group
+ * @version 4
+ */
+public final class Terminal {
+
+    /**
+     * BufferedReader for reading from standard input line-by-line.
+     */
+    private static BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+
+    /**
+     * Buffered writer for the standard output. The lines are collected and written when the buffer is full or when
+     * flush is invoked, instead of being written one at a time.
+     */
+    private static PrintWriter writer = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16),
+            false);
+
+    /**
+     * Private constructor to avoid object generation.
+     */
+    private Terminal() {
+    }
+
+    /**
+     * Print a String to the standard output.
+     * 
+     * The String out must not be null. The String is buffered; it appears on the standard output after flush has been
+     * invoked (or when the buffer is full).
+     * 
+     * @param out
+     *            The string to be printed.
+     */
+    public static void printLine(String out) {
+        writer.println(out);
+    }
+
+    /**
+     * Writes all buffered Strings to the standard output. This has to be invoked after each command and before the
+     * program terminates.
+     */
+    public static void flush() {
+        writer.flush();
+    }
+
+    /**
+     * Reads a line from standard input.
+     * 
+     * Returns null at the end of the standard input.
+     * 
+     * Use Ctrl+D to indicate the end of the standard input.
+     * 
+     * @return The next line from the standard input or null.
+     */
+    public static String readLine() {
+        try {
+            return in.readLine();
+        } catch (IOException e) {
+            /*
+             * rethrow unchecked (!) exception to prevent students from being forced to use Exceptions before they have
+             * been introduced in the lecture.
+             */
+            throw new RuntimeException(e);
+        }
+    }
+
+}
@@ -0,0 +1,144 @@
+package edu.kit.informatik.graphProcessing;
+
+import edu.kit.informatik.userInterface.IllegalInputException;
+
+/**
+ * This class executes the A* algorithm with landmarks (ALT) which is used to
+ * find the shortest or fastest route between two towns. It works like the
+ * Dijkstra algorithm, but the towns are visited in the order of their mark
+ * plus a lower bound of the remaining weight to the destination (taken from
+ * the landmark index of the graph). This way the search heads towards the
+ * destination and visits far fewer towns.<br>
+ * Only the landmarks giving the best bound between start and destination are
+ * used during the search.
+ *
+ * @author Johanna Thiemich
+ * @version 1.0
+ */
+public class AltAlgorithm extends ShortestPathAlgorithm {
+    /**
+     * number of landmarks that are used during one search
+     */
+    private static final int ACTIVE_LANDMARKS = 4;
+
+    /**
+     * graph in which is being searched
+     */
+    private Graph graph;
+    /**
+     * the landmarks and their weights
+     */
+    private LandmarkIndex index;
+    /**
+     * numbers of the landmarks that are used in this search
+     */
+    private int[] activeLandmarks;
+    /**
+     * marks, predecessors and visited towns of the running search
+     */
+    private SearchWorkspace workspace;
+
+    /**
+     * This creates a new ALT algorithm object.
+     *
+     * @param pGraph
+     *            the graph that is being searched in
+     * @param pStart
+     *            start town of the route to be found
+     * @param pDestination
+     *            destination town of the route to be found
+     * @throws ObjectNotFoundException
+     *             if start town (pStart) or destination town (pDestination) do
+     *             not exist in given graph or are null
+     */
+    public AltAlgorithm(Graph pGraph, Town pStart, Town pDestination) throws ObjectNotFoundException {
+        super(pGraph, pStart, pDestination);
+        graph = pGraph;
+    }
+
+    /**
+     * This method executes the actual algorithm and saves the found route. In
+     * case of the criterion being time, it finds the fastest route, if the<br>
+     * criterion is route it finds the shortest route.
+     *
+     * @param pCriterion
+     *            criterion that is going to be applied in the calculation
+     * @throws IllegalInputException
+     *             if the criterion is invalid
+     */
+    @Override
+    public void calculate(Criterion pCriterion) throws IllegalInputException {
+        int[] weights = getSnapshot().getWeights(pCriterion);
+        index = graph.getLandmarkIndex(pCriterion);
+        int start = getStart().getId();
+        int destination = getDestination().getId();
+        selectLandmarks(start, destination);
+        workspace = SearchWorkspace.acquire(getSnapshot().getIdCapacity());
+        workspace.reach(start, 0, -1, lowerBound(start, destination));
+
+        int[] offsets = getSnapshot().getOffsets();
+        int[] targets = getSnapshot().getTargets();
+        while (!workspace.isHeapEmpty()) {
+            int currentTown = workspace.visitNext();
+            if (currentTown == destination) {
+                // distance of destination is final --> stop searching
+                break;
+            }
+            long currentMark = workspace.getMark(currentTown);
+            for (int i = offsets[currentTown]; i < offsets[currentTown + 1]; i++) {
+                int town = targets[i];
+                long newMark = currentMark + weights[i];
+                if (!workspace.isVisited(town) && newMark < workspace.getMark(town)) {
+                    workspace.reach(town, newMark, currentTown, newMark + lowerBound(town, destination));
+                }
+            }
+        }
+        setResult(traceBack(workspace, destination), workspace.getMark(destination));
+        workspace.release();
+        workspace = null;
+    }
+
+    /**
+     * This method selects the landmarks that give the best lower bounds
+     * between start and destination.
+     *
+     * @param pStart
+     *            id of the start town
+     * @param pDestination
+     *            id of the destination town
+     */
+    private void selectLandmarks(int pStart, int pDestination) {
+        int count = Math.min(ACTIVE_LANDMARKS, index.getLandmarkCount());
+        activeLandmarks = new int[count];
+        boolean[] selected = new boolean[index.getLandmarkCount()];
+        for (int i = 0; i < count; i++) {
+            int best = -1;
+            for (int landmark = 0; landmark < index.getLandmarkCount(); landmark++) {
+                if (!selected[landmark] && (best < 0 || index.lowerBound(landmark, pStart, pDestination) > index
+                        .lowerBound(best, pStart, pDestination))) {
+                    best = landmark;
+                }
+            }
+            selected[best] = true;
+            activeLandmarks[i] = best;
+        }
+    }
+
+    /**
+     * This method returns the lower bound of the weight of the shortest route
+     * from a town to the destination.
+     *
+     * @param pTown
+     *            id of the town
+     * @param pDestination
+     *            id of the destination town
+     * @return the largest lower bound of the active landmarks
+     */
+    private long lowerBound(int pTown, int pDestination) {
+        long bound = 0;
+        for (int landmark : activeLandmarks) {
+            bound = Math.max(bound, index.lowerBound(landmark, pTown, pDestination));
+        }
+        return bound;
+    }
+}
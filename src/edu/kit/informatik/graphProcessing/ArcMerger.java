@@ -0,0 +1,314 @@
+package edu.kit.informatik.graphProcessing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import edu.kit.informatik.userInterface.IllegalInputException;
+
+/**
+ * This class collects the vertices and arcs of a graph from another format
+ * (see DimacsImporter and CsvImporter) and turns them into towns and paths.
+ * The arcs of these formats are directed and may be listed several times, so
+ * they are merged into undirected paths:
+ * <ul>
+ * <li>all arcs between two vertices (in both directions) become one path</li>
+ * <li>the path gets the smallest length and the smallest time of these
+ * arcs</li>
+ * <li>lengths and times smaller than one are raised to one, since paths need
+ * positive weights</li>
+ * <li>arcs from a vertex to itself are skipped</li>
+ * <li>if no time is given for a path, its time is its length</li>
+ * </ul>
+ * The paths are created in the order in which their first arc was added. The
+ * arcs are kept in arrays and found by a hash table with open addressing, so
+ * merging millions of arcs creates no objects.
+ *
+ * @author Johanna Thiemich
+ * @version 1.0
+ */
+public class ArcMerger {
+    /**
+     * marks a time that has not been given
+     */
+    private static final int NO_TIME = 0;
+
+    /**
+     * names of the towns, indexed by the number of the vertex
+     */
+    private ArrayList<String> names;
+    /**
+     * for each path: the smaller number of its two vertices
+     */
+    private int[] firsts;
+    /**
+     * for each path: the larger number of its two vertices
+     */
+    private int[] seconds;
+    /**
+     * for each path: the smallest length of its arcs
+     */
+    private int[] lengths;
+    /**
+     * for each path: the smallest time of its arcs, NO_TIME if none has been
+     * given
+     */
+    private int[] times;
+    /**
+     * number of paths
+     */
+    private int pathCount;
+    /**
+     * hash table: for each slot the number of a path plus one, 0 if the slot
+     * is empty
+     */
+    private int[] slots;
+
+    /**
+     * This creates a new merger without any vertices or arcs.
+     */
+    public ArcMerger() {
+        names = new ArrayList<String>();
+        firsts = new int[16];
+        seconds = new int[16];
+        lengths = new int[16];
+        times = new int[16];
+        slots = new int[32];
+    }
+
+    /**
+     * This method adds a vertex.
+     *
+     * @param pName
+     *            name of the town of the vertex; the names of all vertices
+     *            have to be different (ignoring large and lower case)
+     * @return the number of the vertex
+     */
+    public int addVertex(String pName) {
+        names.add(pName);
+        return names.size() - 1;
+    }
+
+    /**
+     * This method returns the number of vertices.
+     *
+     * @return number of vertices
+     */
+    public int getVertexCount() {
+        return names.size();
+    }
+
+    /**
+     * This method returns the number of paths the arcs have been merged into.
+     *
+     * @return number of paths
+     */
+    public int getPathCount() {
+        return pathCount;
+    }
+
+    /**
+     * This method adds an arc with a length.
+     *
+     * @param pFrom
+     *            number of the vertex the arc starts at
+     * @param pTo
+     *            number of the vertex the arc ends at
+     * @param pLength
+     *            length of the arc
+     */
+    public void addArc(int pFrom, int pTo, int pLength) {
+        if (pFrom == pTo) {
+            return;
+        }
+        int path = findPath(pFrom, pTo, true);
+        lengths[path] = Math.min(lengths[path], Math.max(pLength, 1));
+    }
+
+    /**
+     * This method adds an arc with a length and a time.
+     *
+     * @param pFrom
+     *            number of the vertex the arc starts at
+     * @param pTo
+     *            number of the vertex the arc ends at
+     * @param pLength
+     *            length of the arc
+     * @param pTime
+     *            time of the arc
+     */
+    public void addArc(int pFrom, int pTo, int pLength, int pTime) {
+        if (pFrom == pTo) {
+            return;
+        }
+        addArc(pFrom, pTo, pLength);
+        setTime(pFrom, pTo, pTime);
+    }
+
+    /**
+     * This method gives the time of an arc whose length has been added
+     * before.
+     *
+     * @param pFrom
+     *            number of the vertex the arc starts at
+     * @param pTo
+     *            number of the vertex the arc ends at
+     * @param pTime
+     *            time of the arc
+     * @return false if no arc between the two vertices has been added
+     */
+    public boolean setTime(int pFrom, int pTo, int pTime) {
+        if (pFrom == pTo) {
+            return true;
+        }
+        int path = findPath(pFrom, pTo, false);
+        if (path < 0) {
+            return false;
+        }
+        int time = Math.max(pTime, 1);
+        if (times[path] == NO_TIME || time < times[path]) {
+            times[path] = time;
+        }
+        return true;
+    }
+
+    /**
+     * This method finds the path between two vertices.
+     *
+     * @param pFrom
+     *            number of one vertex
+     * @param pTo
+     *            number of the other vertex
+     * @param pCreate
+     *            true if the path is to be created if it does not exist yet
+     * @return number of the path, -1 if it does not exist and has not been
+     *         created
+     */
+    private int findPath(int pFrom, int pTo, boolean pCreate) {
+        int first = Math.min(pFrom, pTo);
+        int second = Math.max(pFrom, pTo);
+        int mask = slots.length - 1;
+        int slot = hash(first, second) & mask;
+        while (slots[slot] != 0) {
+            int path = slots[slot] - 1;
+            if (firsts[path] == first && seconds[path] == second) {
+                return path;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (!pCreate) {
+            return -1;
+        }
+        if (pathCount == firsts.length) {
+            firsts = Arrays.copyOf(firsts, 2 * pathCount);
+            seconds = Arrays.copyOf(seconds, 2 * pathCount);
+            lengths = Arrays.copyOf(lengths, 2 * pathCount);
+            times = Arrays.copyOf(times, 2 * pathCount);
+        }
+        firsts[pathCount] = first;
+        seconds[pathCount] = second;
+        lengths[pathCount] = Integer.MAX_VALUE;
+        times[pathCount] = NO_TIME;
+        slots[slot] = pathCount + 1;
+        pathCount++;
+        if (2 * pathCount > slots.length) {
+            // keep the table at most half full
+            rehash();
+        }
+        return pathCount - 1;
+    }
+
+    /**
+     * This method doubles the size of the hash table.
+     */
+    private void rehash() {
+        slots = new int[2 * slots.length];
+        int mask = slots.length - 1;
+        for (int path = 0; path < pathCount; path++) {
+            int slot = hash(firsts[path], seconds[path]) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = path + 1;
+        }
+    }
+
+    /**
+     * This method computes the hash code of a pair of vertices.
+     *
+     * @param pFirst
+     *            the smaller number of the two vertices
+     * @param pSecond
+     *            the larger number of the two vertices
+     * @return the hash code
+     */
+    private static int hash(int pFirst, int pSecond) {
+        // the odd constant spreads the bits of both numbers (like the keys of
+        // the paths of Graph)
+        long hash = (((long) pFirst << 32) | pSecond) * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32);
+    }
+
+    /**
+     * This method creates the graph out of the vertices and the merged arcs.
+     *
+     * @return the graph
+     * @throws IncorrectInputFileException
+     *             if there are less than two towns, no paths or if the graph is
+     *             not connected
+     */
+    public Graph createGraph() throws IncorrectInputFileException {
+        if (names.size() < 2) {
+            throw new IncorrectInputFileException("Error, at least two towns have to be provided, "
+                    + "but you provided less than two.");
+        }
+        if (pathCount == 0) {
+            throw new IncorrectInputFileException("Error, at least one path has to be provided, "
+                    + "but you provided none.");
+        }
+        Graph graph = new Graph();
+        Town[] towns = new Town[names.size()];
+        for (int i = 0; i < towns.length; i++) {
+            towns[i] = new Town(names.get(i));
+            graph.addTown(towns[i]);
+        }
+        ConnectivityValidator validator = new ConnectivityValidator(graph.getIdCapacity());
+        for (Town town : towns) {
+            validator.addTown(town.getId());
+        }
+        try {
+            for (int path = 0; path < pathCount; path++) {
+                Town first = towns[firsts[path]];
+                Town second = towns[seconds[path]];
+                graph.addPath(new Path(first, second, lengths[path],
+                        times[path] == NO_TIME ? lengths[path] : times[path]));
+                validator.addPath(first.getId(), second.getId());
+            }
+        } catch (IllegalInputException e) {
+            // not possible, all arcs between two vertices have been merged
+            throw new IncorrectInputFileException("Error, duplicate paths are not allowed.");
+        }
+        if (!validator.isConnected()) {
+            throw GraphBuilder.notConnected(validator, graph);
+        }
+        return graph;
+    }
+
+    /**
+     * This method creates a name for a town out of the number of a vertex in
+     * a file. Names of towns may only contain letters, so the number plus one
+     * is written with the letters a to z as digits (a = 1, ..., z = 26, aa =
+     * 27, ...), behind the prefix "v". Different numbers get different names.
+     *
+     * @param pNumber
+     *            the number of the vertex (at least 0)
+     * @return the name of the town
+     */
+    public static String syntheticName(long pNumber) {
+        StringBuilder digits = new StringBuilder();
+        // bijective base 26, so that no digit stands for zero
+        for (long rest = pNumber + 1; rest > 0; rest = (rest - 1) / 26) {
+            digits.append((char) ('a' + (rest - 1) % 26));
+        }
+        return "v" + digits.reverse();
+    }
+}
@@ -0,0 +1,149 @@
+package edu.kit.informatik.graphProcessing;
+
+import java.util.ArrayList;
+
+import edu.kit.informatik.userInterface.IllegalInputException;
+
+/**
+ * This class executes a bidirectional Dijkstra Algorithm: one search starts at
+ * the start town, another one at the destination town (possible since the
+ * graph is undirected). Both searches take turns until they meet; this way
+ * far fewer towns have to be visited than with a single search.<br>
+ * The search stops as soon as the sum of the minimal marks of both searches is
+ * not smaller than the weight of the best route found so far, since no better
+ * route can be found afterwards.
+ *
+ * @author Johanna Thiemich
+ * @version 1.0
+ */
+public class BidirectionalDijkstra extends ShortestPathAlgorithm {
+    /**
+     * data of the search starting at the start town
+     */
+    private SearchWorkspace forward;
+    /**
+     * data of the search starting at the destination town
+     */
+    private SearchWorkspace backward;
+    /**
+     * weight of the best route found so far
+     */
+    private long bestWeight;
+    /**
+     * the town in which the searches meet on the best route found so far, -1
+     * if no route has been found yet
+     */
+    private int meetingTown;
+
+    /**
+     * This creates a new bidirectional Dijkstra Algorithm object.
+     *
+     * @param pGraph
+     *            the graph that is being searched in
+     * @param pStart
+     *            start town of the route to be found
+     * @param pDestination
+     *            destination town of the route to be found
+     * @throws ObjectNotFoundException
+     *             if start town (pStart) or destination town (pDestination) do
+     *             not exist in given graph or are null
+     */
+    public BidirectionalDijkstra(Graph pGraph, Town pStart, Town pDestination) throws ObjectNotFoundException {
+        super(pGraph, pStart, pDestination);
+    }
+
+    /**
+     * This method executes the actual algorithm and saves the found route. In
+     * case of the criterion being time, it finds the fastest route, if the<br>
+     * criterion is route it finds the shortest route.
+     *
+     * @param pCriterion
+     *            criterion that is going to be applied in the calculation
+     * @throws IllegalInputException
+     *             if the criterion is invalid
+     */
+    @Override
+    public void calculate(Criterion pCriterion) throws IllegalInputException {
+        int[] weights = getSnapshot().getWeights(pCriterion);
+        int start = getStart().getId();
+        int destination = getDestination().getId();
+        forward = SearchWorkspace.acquire(getSnapshot().getIdCapacity());
+        backward = SearchWorkspace.acquire(getSnapshot().getIdCapacity());
+        forward.reach(start, 0, -1);
+        backward.reach(destination, 0, -1);
+        bestWeight = Long.MAX_VALUE;
+        meetingTown = -1;
+        if (start == destination) {
+            // route only contains the start (= destination)
+            bestWeight = 0;
+            meetingTown = start;
+        }
+
+        while (!forward.isHeapEmpty() && !backward.isHeapEmpty()
+                && forward.peekMark() + backward.peekMark() < bestWeight) {
+            // continue with the search that has not come as far yet
+            if (forward.peekMark() <= backward.peekMark()) {
+                visitNext(forward, backward, weights);
+            } else {
+                visitNext(backward, forward, weights);
+            }
+        }
+
+        if (meetingTown < 0) {
+            // no route found: route only contains the destination
+            ArrayList<Town> noRoute = new ArrayList<Town>();
+            noRoute.add(getDestination());
+            setResult(noRoute, 0);
+        } else {
+            // first part: start to meeting town, second part: meeting town to
+            // destination (the backward route has to be turned around)
+            ArrayList<Town> route = traceBack(forward, meetingTown);
+            int town = backward.getPredecessor(meetingTown);
+            while (town >= 0) {
+                route.add(getSnapshot().getTown(town));
+                town = backward.getPredecessor(town);
+            }
+            setResult(route, bestWeight);
+        }
+        forward.release();
+        backward.release();
+        forward = null;
+        backward = null;
+    }
+
+    /**
+     * This method visits the next town of one of the searches and updates the
+     * marks of its neighbors. If a neighbor has already been reached by the
+     * other search, a route from start to destination has been found.
+     *
+     * @param pThis
+     *            the search that continues
+     * @param pOther
+     *            the search coming from the other side
+     * @param pWeights
+     *            weight of each path in the snapshot (time or length)
+     */
+    private void visitNext(SearchWorkspace pThis, SearchWorkspace pOther, int[] pWeights) {
+        int[] offsets = getSnapshot().getOffsets();
+        int[] targets = getSnapshot().getTargets();
+        int currentTown = pThis.visitNext();
+        long currentMark = pThis.getMark(currentTown);
+        for (int i = offsets[currentTown]; i < offsets[currentTown + 1]; i++) {
+            int town = targets[i];
+            if (!pThis.isVisited(town)) {
+                long newMark = currentMark + pWeights[i];
+                if (newMark < pThis.getMark(town)) {
+                    pThis.reach(town, newMark, currentTown);
+                }
+                if (pOther.getMark(town) != Long.MAX_VALUE) {
+                    // both searches have reached this town --> possible route
+                    long routeWeight = pThis.getMark(town) + pOther.getMark(town);
+                    if (routeWeight < bestWeight) {
+                        bestWeight = routeWeight;
+                        meetingTown = town;
+                    }
+                }
+            }
+        }
+    }
+}
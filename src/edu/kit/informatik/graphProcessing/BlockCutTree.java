@@ -0,0 +1,259 @@
+package edu.kit.informatik.graphProcessing;
+
+import java.util.Arrays;
+
+/**
+ * This class splits a graph into its biconnected components (blocks): two
+ * paths belong to the same block if there is a circle containing both of
+ * them. A town belonging to several blocks is a cut town (articulation
+ * point): removing it disconnects the graph.<br>
+ * The blocks and cut towns form a tree (block-cut tree). A route that does not
+ * visit a town twice can only leave a block through a cut town and can never
+ * come back, so every route between two towns only visits the blocks on the
+ * path between these towns in the tree. All other towns do not have to be
+ * looked at when searching for routes.
+ *
+ * @author Johanna Thiemich
+ * @version 1.0
+ */
+public class BlockCutTree {
+    /**
+     * the snapshot of the graph the tree has been created of
+     */
+    private GraphSnapshot snapshot;
+    /**
+     * number of blocks
+     */
+    private int blockCount;
+    /**
+     * for each block: position of its first town in blockTowns; one
+     * additional entry at the end
+     */
+    private int[] blockOffsets;
+    /**
+     * the ids of the towns of all blocks, the towns of one block are stored
+     * next to each other
+     */
+    private int[] blockTowns;
+    /**
+     * for each town id: position of its first block in townBlocks; one
+     * additional entry at the end
+     */
+    private int[] townOffsets;
+    /**
+     * the blocks of all towns, the blocks of one town are stored next to each
+     * other
+     */
+    private int[] townBlocks;
+
+    /**
+     * This creates the block-cut tree of a graph (algorithm of Hopcroft and
+     * Tarjan, without recursion).
+     *
+     * @param pSnapshot
+     *            the snapshot of the graph
+     */
+    public BlockCutTree(GraphSnapshot pSnapshot) {
+        snapshot = pSnapshot;
+        int[] offsets = pSnapshot.getOffsets();
+        int[] targets = pSnapshot.getTargets();
+        int capacity = pSnapshot.getIdCapacity();
+        // order in which the towns are visited and lowest order reachable
+        int[] order = new int[capacity];
+        int[] low = new int[capacity];
+        int[] parent = new int[capacity];
+        int[] nextPath = new int[capacity];
+        Arrays.fill(order, -1);
+        int visited = 0;
+        // towns of the search and paths (from, to) that are not in a block yet
+        int[] townStack = new int[capacity];
+        int[] pathStack = new int[targets.length];
+        int pathTop = 0;
+        // towns of the blocks found so far
+        int[] towns = new int[targets.length + capacity];
+        int townCount = 0;
+        blockOffsets = new int[capacity + 1];
+        // marks which towns have already been added to the current block
+        int[] addedTo = new int[capacity];
+        Arrays.fill(addedTo, -1);
+
+        for (int root = 0; root < capacity; root++) {
+            if (pSnapshot.getTown(root) == null || order[root] >= 0) {
+                continue;
+            }
+            if (offsets[root] == offsets[root + 1]) {
+                // town without paths: block of its own
+                towns[townCount++] = root;
+                blockOffsets[++blockCount] = townCount;
+                order[root] = visited++;
+                continue;
+            }
+            int top = 0;
+            townStack[top++] = root;
+            order[root] = visited++;
+            low[root] = order[root];
+            parent[root] = -1;
+            nextPath[root] = offsets[root];
+            while (top > 0) {
+                int town = townStack[top - 1];
+                if (nextPath[town] < offsets[town + 1]) {
+                    int neighbor = targets[nextPath[town]++];
+                    if (order[neighbor] < 0) {
+                        // new town --> continue search there
+                        pathStack[pathTop++] = town;
+                        pathStack[pathTop++] = neighbor;
+                        order[neighbor] = visited++;
+                        low[neighbor] = order[neighbor];
+                        parent[neighbor] = town;
+                        nextPath[neighbor] = offsets[neighbor];
+                        townStack[top++] = neighbor;
+                    } else if (neighbor != parent[town] && order[neighbor] < order[town]) {
+                        // path back to a town visited before
+                        pathStack[pathTop++] = town;
+                        pathStack[pathTop++] = neighbor;
+                        low[town] = Math.min(low[town], order[neighbor]);
+                    }
+                    continue;
+                }
+                // all paths of the town looked at --> go back
+                top--;
+                int before = parent[town];
+                if (before < 0) {
+                    continue;
+                }
+                low[before] = Math.min(low[before], low[town]);
+                if (low[town] >= order[before]) {
+                    // no path back above "before" --> the paths form a block
+                    int from;
+                    int to;
+                    do {
+                        to = pathStack[--pathTop];
+                        from = pathStack[--pathTop];
+                        for (int k = 0; k < 2; k++) {
+                            int end = k == 0 ? from : to;
+                            if (addedTo[end] != blockCount) {
+                                addedTo[end] = blockCount;
+                                towns[townCount++] = end;
+                            }
+                        }
+                    } while (from != before || to != town);
+                    blockOffsets[++blockCount] = townCount;
+                }
+            }
+        }
+        blockOffsets = Arrays.copyOf(blockOffsets, blockCount + 1);
+        blockTowns = Arrays.copyOf(towns, townCount);
+
+        // for each town: its blocks
+        townOffsets = new int[capacity + 1];
+        for (int town : blockTowns) {
+            townOffsets[town + 1]++;
+        }
+        for (int i = 0; i < capacity; i++) {
+            townOffsets[i + 1] += townOffsets[i];
+        }
+        townBlocks = new int[townCount];
+        int[] next = Arrays.copyOf(townOffsets, capacity);
+        for (int block = 0; block < blockCount; block++) {
+            for (int i = blockOffsets[block]; i < blockOffsets[block + 1]; i++) {
+                townBlocks[next[blockTowns[i]]++] = block;
+            }
+        }
+    }
+
+    /**
+     * This method finds all towns that may be part of a route between two
+     * towns: the towns of the blocks on the path between the two towns in the
+     * block-cut tree.
+     *
+     * @param pStart
+     *            id of the start town
+     * @param pDestination
+     *            id of the destination town
+     * @return bit set of the towns (bit i of entry i / 64 belongs to the town
+     *         with id i), empty if there is no route
+     */
+    public long[] townsBetween(int pStart, int pDestination) {
+        long[] result = new long[(snapshot.getIdCapacity() + 63) >> 6];
+        if (pStart == pDestination) {
+            result[pStart >> 6] |= 1L << pStart;
+            return result;
+        }
+        /*
+         * breadth first search in the tree: nodes 0 ... blockCount - 1 are the
+         * blocks, node blockCount + i is the cut town with id i; the marks are
+         * the numbers of steps, so the workspace of the thread is reused
+         * instead of creating new arrays for each search
+         */
+        SearchWorkspace workspace = SearchWorkspace.acquire(blockCount + snapshot.getIdCapacity());
+        int first = node(pStart);
+        int last = node(pDestination);
+        workspace.reach(first, 0, -1);
+        while (!workspace.isHeapEmpty() && !workspace.isVisited(last)) {
+            int current = workspace.visitNext();
+            long mark = workspace.getMark(current) + 1;
+            if (current < blockCount) {
+                // block --> its cut towns
+                for (int i = blockOffsets[current]; i < blockOffsets[current + 1]; i++) {
+                    int town = blockTowns[i];
+                    if (isCutTown(town) && workspace.getMark(blockCount + town) == Long.MAX_VALUE) {
+                        workspace.reach(blockCount + town, mark, current);
+                    }
+                }
+            } else {
+                // cut town --> its blocks
+                int town = current - blockCount;
+                for (int i = townOffsets[town]; i < townOffsets[town + 1]; i++) {
+                    if (workspace.getMark(townBlocks[i]) == Long.MAX_VALUE) {
+                        workspace.reach(townBlocks[i], mark, current);
+                    }
+                }
+            }
+        }
+        if (workspace.getMark(last) != Long.MAX_VALUE) {
+            for (int current = last; current >= 0; current = workspace.getPredecessor(current)) {
+                if (current < blockCount) {
+                    for (int i = blockOffsets[current]; i < blockOffsets[current + 1]; i++) {
+                        result[blockTowns[i] >> 6] |= 1L << blockTowns[i];
+                    }
+                }
+            }
+        }
+        // otherwise the towns are not connected
+        workspace.release();
+        return result;
+    }
+
+    /**
+     * This method returns the node of a town in the tree: the cut town itself
+     * or the only block of the town.
+     *
+     * @param pTown
+     *            id of the town
+     * @return the node in the tree
+     */
+    private int node(int pTown) {
+        return isCutTown(pTown) ? blockCount + pTown : townBlocks[townOffsets[pTown]];
+    }
+
+    /**
+     * This method checks whether a town is a cut town, that means it belongs
+     * to more than one block.
+     *
+     * @param pTown
+     *            id of the town
+     * @return true if the town is a cut town
+     */
+    public boolean isCutTown(int pTown) {
+        return townOffsets[pTown + 1] - townOffsets[pTown] > 1;
+    }
+
+    /**
+     * This method returns the snapshot of the graph the tree belongs to.
+     *
+     * @return the snapshot
+     */
+    public GraphSnapshot getSnapshot() {
+        return snapshot;
+    }
+}
@@ -0,0 +1,119 @@
+package edu.kit.informatik.graphProcessing;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+/**
+ * This class knows the bridges of a graph. A bridge is a path whose removal
+ * disconnects the graph. They are found with the low-link values of a depth
+ * first search (algorithm of Tarjan).<br>
+ * The index is created of a snapshot of the graph. Adding or removing a path
+ * to a town with no other paths (a "pendant" town) does not change any other
+ * bridge, so in this case the graph updates the index instead of creating it
+ * again.
+ *
+ * @author Johanna Thiemich
+ * @version 1.0
+ */
+public class BridgeIndex {
+    /**
+     * the paths that are bridges
+     */
+    private HashSet<Path> bridges;
+
+    /**
+     * This creates a new index of the bridges of a graph.
+     *
+     * @param pGraph
+     *            the graph
+     * @param pSnapshot
+     *            snapshot of the current state of the graph
+     */
+    public BridgeIndex(Graph pGraph, GraphSnapshot pSnapshot) {
+        bridges = new HashSet<Path>();
+        int[] offsets = pSnapshot.getOffsets();
+        int[] targets = pSnapshot.getTargets();
+        int capacity = pSnapshot.getIdCapacity();
+        // order in which the towns are visited and lowest order reachable
+        int[] order = new int[capacity];
+        int[] low = new int[capacity];
+        int[] parent = new int[capacity];
+        int[] nextPath = new int[capacity];
+        Arrays.fill(order, -1);
+        int visited = 0;
+        int[] stack = new int[capacity];
+
+        for (int root = 0; root < capacity; root++) {
+            if (pSnapshot.getTown(root) == null || order[root] >= 0) {
+                continue;
+            }
+            int top = 0;
+            stack[top++] = root;
+            order[root] = visited++;
+            low[root] = order[root];
+            parent[root] = -1;
+            nextPath[root] = offsets[root];
+            while (top > 0) {
+                int town = stack[top - 1];
+                if (nextPath[town] < offsets[town + 1]) {
+                    int neighbor = targets[nextPath[town]++];
+                    if (order[neighbor] < 0) {
+                        // new town --> continue search there
+                        order[neighbor] = visited++;
+                        low[neighbor] = order[neighbor];
+                        parent[neighbor] = town;
+                        nextPath[neighbor] = offsets[neighbor];
+                        stack[top++] = neighbor;
+                    } else if (neighbor != parent[town]) {
+                        low[town] = Math.min(low[town], order[neighbor]);
+                    }
+                    continue;
+                }
+                // all paths of the town looked at --> go back
+                top--;
+                int before = parent[town];
+                if (before < 0) {
+                    continue;
+                }
+                low[before] = Math.min(low[before], low[town]);
+                if (low[town] > order[before]) {
+                    // no other path back to "before" or above
+                    bridges.add(pGraph.findPath(pSnapshot.getTown(before), pSnapshot.getTown(town)));
+                }
+            }
+        }
+    }
+
+    /**
+     * This method checks whether a path is a bridge.
+     *
+     * @param pPath
+     *            the path
+     * @return true if removing the path disconnects the graph
+     */
+    public boolean isBridge(Path pPath) {
+        return bridges.contains(pPath);
+    }
+
+    /**
+     * This method updates the index after a path to a new town without other
+     * paths has been added.
+     *
+     * @param pPath
+     *            the new path
+     */
+    public void pendantAdded(Path pPath) {
+        bridges.add(pPath);
+    }
+
+    /**
+     * This method updates the index after a path to a town without other paths
+     * has been removed (together with this town).
+     *
+     * @param pPath
+     *            the removed path
+     */
+    public void pendantRemoved(Path pPath) {
+        bridges.remove(pPath);
+    }
+}
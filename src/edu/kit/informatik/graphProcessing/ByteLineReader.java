@@ -0,0 +1,246 @@
+package edu.kit.informatik.graphProcessing;
+
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * This class reads a file line by line without decoding it: each line is a
+ * range of bytes in a buffer that is reused for the whole file, so reading a
+ * line creates no objects. Like BufferedReader.readLine, a line ends with a
+ * line feed, a carriage return or both.<br>
+ * The buffer only grows if a single line does not fit into it, so the memory
+ * needed does not depend on the size of the file.
+ *
+ * @author Johanna Thiemich
+ * @version 1.0
+ */
+public class ByteLineReader implements Closeable {
+    /**
+     * initial size of the buffer in bytes
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * the file that is being read
+     */
+    private FileChannel channel;
+    /**
+     * the bytes read so far that have not been returned as a line yet
+     */
+    private byte[] bytes;
+    /**
+     * position of the first byte in the buffer that belongs to the next line
+     */
+    private int position;
+    /**
+     * number of valid bytes in the buffer
+     */
+    private int limit;
+    /**
+     * remembers whether the end of the file has been reached
+     */
+    private boolean endOfFile;
+    /**
+     * remembers whether the last line ended with a carriage return, so that a
+     * following line feed belongs to the same line end
+     */
+    private boolean skipLineFeed;
+    /**
+     * position of the first byte of the current line
+     */
+    private int lineStart;
+    /**
+     * position after the last byte of the current line
+     */
+    private int lineEnd;
+    /**
+     * number of the current line (beginning with 0), -1 before the first line
+     */
+    private long lineNumber;
+    /**
+     * position of the first byte of the buffer in the file
+     */
+    private long bufferOffset;
+
+    /**
+     * This creates a new reader of a file.
+     *
+     * @param pFile
+     *            path of the file
+     * @throws FileNotFoundException
+     *             if the file cannot be opened
+     */
+    public ByteLineReader(String pFile) throws FileNotFoundException {
+        channel = new FileInputStream(pFile).getChannel();
+        bytes = new byte[BUFFER_SIZE];
+        lineNumber = -1;
+    }
+
+    /**
+     * This creates a new reader of a file that begins reading at a certain
+     * position. The first line is the part of the file from this position to
+     * the next line end, and the line numbers are counted from there.
+     *
+     * @param pFile
+     *            path of the file
+     * @param pOffset
+     *            position of the first byte to read in the file
+     * @throws IOException
+     *             if the file cannot be opened
+     */
+    public ByteLineReader(String pFile, long pOffset) throws IOException {
+        this(pFile);
+        channel.position(pOffset);
+        bufferOffset = pOffset;
+    }
+
+    /**
+     * This method moves to the next line.
+     *
+     * @return false if there are no more lines
+     * @throws IOException
+     *             if the file cannot be read
+     */
+    public boolean nextLine() throws IOException {
+        if (skipLineFeed) {
+            if (position == limit && !endOfFile) {
+                fill();
+            }
+            if (position < limit && bytes[position] == '\n') {
+                position++;
+            }
+            skipLineFeed = false;
+        }
+        int i = position;
+        while (true) {
+            while (i < limit) {
+                byte current = bytes[i];
+                if (current == '\n' || current == '\r') {
+                    lineStart = position;
+                    lineEnd = i;
+                    position = i + 1;
+                    skipLineFeed = current == '\r';
+                    lineNumber++;
+                    return true;
+                }
+                i++;
+            }
+            if (endOfFile) {
+                if (position == limit) {
+                    return false;
+                }
+                // last line without line end
+                lineStart = position;
+                lineEnd = limit;
+                position = limit;
+                lineNumber++;
+                return true;
+            }
+            int searched = i - position;
+            fill();
+            i = position + searched;
+        }
+    }
+
+    /**
+     * This method moves the unread bytes to the beginning of the buffer and
+     * reads more bytes of the file behind them.
+     *
+     * @throws IOException
+     *             if the file cannot be read
+     */
+    private void fill() throws IOException {
+        System.arraycopy(bytes, position, bytes, 0, limit - position);
+        bufferOffset += position;
+        limit -= position;
+        position = 0;
+        if (limit == bytes.length) {
+            // a line longer than the buffer
+            byte[] larger = new byte[2 * bytes.length];
+            System.arraycopy(bytes, 0, larger, 0, limit);
+            bytes = larger;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, limit, bytes.length - limit);
+        int read = channel.read(buffer);
+        if (read < 0) {
+            endOfFile = true;
+        } else {
+            limit += read;
+        }
+    }
+
+    /**
+     * This method returns the buffer containing the current line. The buffer
+     * changes when the next line is read.
+     *
+     * @return the buffer
+     */
+    public byte[] getBuffer() {
+        return bytes;
+    }
+
+    /**
+     * This method returns the position of the first byte of the current line.
+     *
+     * @return position in the buffer
+     */
+    public int getLineStart() {
+        return lineStart;
+    }
+
+    /**
+     * This method returns the position after the last byte of the current
+     * line.
+     *
+     * @return position in the buffer
+     */
+    public int getLineEnd() {
+        return lineEnd;
+    }
+
+    /**
+     * This method returns the position of the current line in the file.
+     *
+     * @return position of the first byte of the line in the file
+     */
+    public long getLineOffset() {
+        return bufferOffset + lineStart;
+    }
+
+    /**
+     * This method returns the number of the current line.
+     *
+     * @return number of the line, beginning with 0
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * This method checks whether the current line is empty.
+     *
+     * @return true if the line contains no bytes
+     */
+    public boolean isEmptyLine() {
+        return lineStart == lineEnd;
+    }
+
+    /**
+     * This method checks whether the current line consists of two hyphens,
+     * which separate the towns from the paths.
+     *
+     * @return true if the line is "--"
+     */
+    public boolean isSeparator() {
+        return lineEnd - lineStart == 2 && bytes[lineStart] == '-' && bytes[lineStart + 1] == '-';
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,162 @@
+package edu.kit.informatik.graphProcessing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * This class checks whether a graph is connected while its paths are added,
+ * using a union-find structure: each town starts in a component of its own,
+ * each path merges the components of its two towns. The graph is connected if
+ * only one component is left. Adding a town or a path needs almost constant
+ * time, so checking a graph needs almost linear time.
+ *
+ * @author Johanna Thiemich
+ * @version 1.0
+ */
+public class ConnectivityValidator {
+    /**
+     * for each town id: the parent of the town in its component, the town
+     * itself for the representative of the component, -1 if there is no town
+     * with this id
+     */
+    private int[] parents;
+    /**
+     * for each representative: the number of towns of its component
+     */
+    private int[] sizes;
+    /**
+     * number of components
+     */
+    private int componentCount;
+
+    /**
+     * This creates a new validator without any towns.
+     *
+     * @param pCapacity
+     *            upper bound (exclusive) of the ids of the towns
+     */
+    public ConnectivityValidator(int pCapacity) {
+        parents = new int[pCapacity];
+        sizes = new int[pCapacity];
+        Arrays.fill(parents, -1);
+    }
+
+    /**
+     * This creates a new validator containing all towns and paths of a graph.
+     *
+     * @param pGraph
+     *            the graph
+     */
+    public ConnectivityValidator(Graph pGraph) {
+        this(pGraph.getIdCapacity());
+        for (Town town : pGraph.getTowns()) {
+            addTown(town.getId());
+        }
+        for (Path path : pGraph.getPaths()) {
+            addPath(path.getStart().getId(), path.getDestination().getId());
+        }
+    }
+
+    /**
+     * This method adds a town as a new component.
+     *
+     * @param pTown
+     *            id of the town
+     */
+    public void addTown(int pTown) {
+        if (parents[pTown] < 0) {
+            parents[pTown] = pTown;
+            sizes[pTown] = 1;
+            componentCount++;
+        }
+    }
+
+    /**
+     * This method adds a path, that means it merges the components of its
+     * towns. The smaller component is attached to the larger one.
+     *
+     * @param pStart
+     *            id of the start town
+     * @param pDestination
+     *            id of the destination town
+     */
+    public void addPath(int pStart, int pDestination) {
+        int first = find(pStart);
+        int second = find(pDestination);
+        if (first == second) {
+            return;
+        }
+        if (sizes[first] < sizes[second]) {
+            int swap = first;
+            first = second;
+            second = swap;
+        }
+        parents[second] = first;
+        sizes[first] += sizes[second];
+        componentCount--;
+    }
+
+    /**
+     * This method finds the representative of the component of a town. The
+     * towns on the way are attached to the town two steps above them, which
+     * keeps the way short for the next search.
+     *
+     * @param pTown
+     *            id of the town
+     * @return id of the representative
+     */
+    private int find(int pTown) {
+        int town = pTown;
+        while (parents[town] != town) {
+            parents[town] = parents[parents[town]];
+            town = parents[town];
+        }
+        return town;
+    }
+
+    /**
+     * This method checks whether all towns belong to the same component.
+     *
+     * @return true if the towns are connected (also if there are no towns)
+     */
+    public boolean isConnected() {
+        return componentCount <= 1;
+    }
+
+    /**
+     * This method returns the number of components.
+     *
+     * @return the number of components
+     */
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    /**
+     * This method returns the towns of each component. The components are
+     * sorted by the smallest id of their towns, the towns of each component by
+     * their id.
+     *
+     * @param pGraph
+     *            the graph the ids belong to
+     * @return the towns of each component
+     */
+    public ArrayList<ArrayList<Town>> getComponents(Graph pGraph) {
+        ArrayList<ArrayList<Town>> components = new ArrayList<ArrayList<Town>>();
+        // for each representative: number of its component in the list
+        int[] numbers = new int[parents.length];
+        Arrays.fill(numbers, -1);
+        for (int town = 0; town < parents.length; town++) {
+            if (parents[town] < 0) {
+                continue;
+            }
+            int root = find(town);
+            if (numbers[root] < 0) {
+                numbers[root] = components.size();
+                components.add(new ArrayList<Town>());
+            }
+            components.get(numbers[root]).add(pGraph.getTownById(town));
+        }
+        return components;
+    }
+}
@@ -0,0 +1,207 @@
+package edu.kit.informatik.graphProcessing;
+
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.Random;
+
+import edu.kit.informatik.Terminal;
+import edu.kit.informatik.userInterface.IllegalInputException;
+
+/**
+ * This class checks the algorithms against each other on some pairs of towns.
+ * For route and time, every engine has to find a route as good as the one of
+ * a plain Dijkstra search of the snapshot. For optimal, ParetoSearch has to
+ * find a route as good as the one of DepthFirstSearch, which looks at all
+ * routes (only in small graphs, since this takes exponential time). Each
+ * route has to consist of paths of the graph and to have the weight reported
+ * for it.<br>
+ * The pairs are chosen the same way each time the graph is the same, so a
+ * mismatch can be looked at again.
+ *
+ * @author Johanna Thiemich
+ * @version 1.0
+ */
+public class ConsistencyCheck {
+    /**
+     * number of pairs of towns that are checked
+     */
+    private static final int PAIR_COUNT = 20;
+    /**
+     * maximal number of towns of a graph in which the optimal routes are
+     * checked
+     */
+    private static final int MAX_OPTIMAL_TOWNS = 30;
+    /**
+     * seed of the random numbers choosing the pairs
+     */
+    private static final long SEED = 42;
+    /**
+     * printed instead of the weight of an optimal route that does not fit
+     * into a long
+     */
+    private static final String TOO_LARGE = "too large";
+
+    /**
+     * the graph that is checked
+     */
+    private Graph graph;
+    /**
+     * one line for each mismatch found so far
+     */
+    private ArrayList<String> mismatches;
+
+    /**
+     * This creates a new check of a graph.
+     *
+     * @param pGraph
+     *            the graph
+     */
+    public ConsistencyCheck(Graph pGraph) {
+        graph = pGraph;
+        mismatches = new ArrayList<String>();
+    }
+
+    /**
+     * This method runs the check and prints one line for each mismatch:
+     * engine;criterion;start;destination;found weight;expected weight (the
+     * found weight is "invalid" if the route is not a route of the graph or
+     * does not have the reported weight). If there is no mismatch, "OK" is
+     * printed.
+     *
+     * @throws ObjectNotFoundException
+     *             if a town of the graph cannot be found by the algorithms
+     * @throws IllegalInputException
+     *             if a criterion is invalid
+     */
+    public void printResult() throws ObjectNotFoundException, IllegalInputException {
+        ArrayList<Town> towns = graph.getTowns();
+        GraphSnapshot snapshot = graph.getSnapshot();
+        Random random = new Random(SEED);
+        for (int i = 0; i < PAIR_COUNT && towns.size() > 1; i++) {
+            Town start = towns.get(random.nextInt(towns.size()));
+            Town destination = towns.get(random.nextInt(towns.size()));
+            if (start.equals(destination)) {
+                continue;
+            }
+            for (Criterion criterion : new Criterion[] {Criterion.ROUTE, Criterion.TIME}) {
+                long expected = snapshot.shortestRoutes(start.getId(),
+                        snapshot.getWeights(criterion))[destination.getId()];
+                for (Engine engine : Engine.values()) {
+                    ShortestPathAlgorithm algorithm = engine.create(graph, start, destination);
+                    algorithm.calculate(criterion);
+                    compare(engine.getName(), criterion, start, destination, algorithm.getRoute(),
+                            algorithm.getWeight(), expected);
+                }
+            }
+            if (towns.size() <= MAX_OPTIMAL_TOWNS) {
+                checkOptimal(start, destination);
+            }
+        }
+        for (String mismatch : mismatches) {
+            Terminal.printLine(mismatch);
+        }
+        if (mismatches.isEmpty()) {
+            Terminal.printLine("OK");
+        }
+    }
+
+    /**
+     * This method compares the optimal route of ParetoSearch with the one of
+     * DepthFirstSearch. If the weight of the optimal route does not fit into
+     * a long, both have to notice it.
+     *
+     * @param pStart
+     *            starting town
+     * @param pDestination
+     *            destination town
+     * @throws ObjectNotFoundException
+     *             if one of the towns cannot be found
+     * @throws IllegalInputException
+     *             if the criterion is invalid
+     */
+    private void checkOptimal(Town pStart, Town pDestination) throws ObjectNotFoundException, IllegalInputException {
+        DepthFirstSearch allRoutes = new DepthFirstSearch(graph, pStart, pDestination);
+        ParetoSearch pareto = new ParetoSearch(graph, pStart, pDestination);
+        String expected = null;
+        String found = null;
+        try {
+            allRoutes.findOptimalRoute();
+        } catch (IllegalInputException e) {
+            expected = TOO_LARGE;
+        }
+        try {
+            pareto.findOptimalRoute();
+        } catch (IllegalInputException e) {
+            found = TOO_LARGE;
+        }
+        if (expected == null && found == null) {
+            compare("pareto", Criterion.OPTIMAL, pStart, pDestination, pareto.getOptimalRoute(),
+                    pareto.getWeightOptimalRoute(), allRoutes.getWeightOptimalRoute());
+        } else if (expected == null || found == null) {
+            mismatches.add("pareto;optimal;" + pStart.getName() + ";" + pDestination.getName() + ";"
+                    + (found == null ? pareto.getWeightOptimalRoute() : found) + ";"
+                    + (expected == null ? allRoutes.getWeightOptimalRoute() : expected));
+        }
+    }
+
+    /**
+     * This method compares a found route with the expected weight and
+     * remembers a mismatch.
+     *
+     * @param pName
+     *            name of the algorithm that found the route
+     * @param pCriterion
+     *            route, time or optimal
+     * @param pStart
+     *            starting town
+     * @param pDestination
+     *            destination town
+     * @param pRoute
+     *            the found route
+     * @param pWeight
+     *            the reported weight of the route
+     * @param pExpected
+     *            the weight of the best route
+     * @throws IllegalInputException
+     *             if the criterion is invalid
+     */
+    private void compare(String pName, Criterion pCriterion, Town pStart, Town pDestination,
+            ArrayList<Town> pRoute, long pWeight, long pExpected) throws IllegalInputException {
+        boolean valid = !pRoute.isEmpty() && pRoute.get(0).equals(pStart)
+                && pRoute.get(pRoute.size() - 1).equals(pDestination) && weight(pRoute, pCriterion) == pWeight;
+        if (!valid || pWeight != pExpected) {
+            mismatches.add(pName + ";" + pCriterion.name().toLowerCase(Locale.ROOT) + ";" + pStart.getName() + ";"
+                    + pDestination.getName() + ";" + (valid ? String.valueOf(pWeight) : "invalid") + ";"
+                    + pExpected);
+        }
+    }
+
+    /**
+     * This method calculates the weight of a route out of its paths.
+     *
+     * @param pRoute
+     *            the towns of the route
+     * @param pCriterion
+     *            route, time or optimal
+     * @return the weight of the route, -1 if two consecutive towns are not
+     *         connected by a path
+     * @throws IllegalInputException
+     *             if the criterion is invalid
+     */
+    private long weight(ArrayList<Town> pRoute, Criterion pCriterion) throws IllegalInputException {
+        long length = 0;
+        long time = 0;
+        for (int i = 1; i < pRoute.size(); i++) {
+            Path path = graph.findPath(pRoute.get(i - 1), pRoute.get(i));
+            if (path == null) {
+                return -1;
+            }
+            length += path.getLength();
+            time += path.getTime();
+        }
+        if (Criterion.OPTIMAL.equals(pCriterion)) {
+            return ParetoSearch.weight(length, time);
+        }
+        return Criterion.ROUTE.equals(pCriterion) ? length : time;
+    }
+}
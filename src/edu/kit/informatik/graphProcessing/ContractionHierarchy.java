@@ -0,0 +1,780 @@
+package edu.kit.informatik.graphProcessing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+import edu.kit.informatik.userInterface.IllegalInputException;
+
+/**
+ * This class represents a contraction hierarchy of a graph for one criterion
+ * (time or route). It is created once and then used by
+ * ContractionHierarchyQuery to find routes very fast.<br>
+ * While preprocessing, the towns are "contracted" one after another (the least
+ * important ones first). When a town is contracted, shortcuts are added
+ * between its remaining neighbors wherever the route through the town is the
+ * only shortest connection. Afterwards every town has a rank (the order of
+ * contraction) and only the paths leading to towns of a higher rank are kept
+ * (upward paths). A shortest route always consists of a part going upward
+ * from the start and a part going upward from the destination.<br>
+ * Every shortcut remembers the town it skips (middle town), so the original
+ * route can be restored.<br>
+ * When a path is added to the graph, the hierarchy is repaired instead of
+ * being created again: the order of contraction is kept and only the towns
+ * from the lower ranked town of the path upward are contracted again (new
+ * towns are contracted last). Nothing has to be done if the hierarchy already
+ * knows a route between the two towns that is not longer than the path. When
+ * a path is removed, the hierarchy is created again, since witnesses may have
+ * used the path.
+ *
+ * @author Johanna Thiemich
+ * @version 1.0
+ */
+public class ContractionHierarchy {
+    /**
+     * a witness search stops after visiting this many towns; if no witness has
+     * been found until then, a shortcut is added (which is always correct)
+     */
+    private static final int WITNESS_VISIT_LIMIT = 1000;
+    /**
+     * a witness search stops after looking at this many paths, so that
+     * visiting a town with very many neighbors does not make it expensive
+     */
+    private static final int WITNESS_SCAN_LIMIT = 1000;
+    /**
+     * after a town has been contracted, the importance of its neighbors is
+     * only calculated again right away if they have at most this many
+     * neighbors; the importance of the other ones is calculated when they are
+     * taken out of the queue (calculating it needs a witness search for each
+     * of their neighbors)
+     */
+    private static final int EAGER_UPDATE_DEGREE = 16;
+    /**
+     * the importance of a town with more neighbors than this is estimated
+     * without witness searches, as if every pair of neighbors needed a
+     * shortcut
+     */
+    private static final int ESTIMATED_PRIORITY_DEGREE = 256;
+    /**
+     * upper bound of the estimated number of shortcuts, so that the priority
+     * does not overflow
+     */
+    private static final int MAX_ESTIMATED_SHORTCUTS = 1 << 24;
+
+    /**
+     * the snapshot of the graph the hierarchy has been created of
+     */
+    private GraphSnapshot snapshot;
+    /**
+     * the criterion (time or route) the hierarchy has been created for
+     */
+    private Criterion criterion;
+    /**
+     * for each town id: the rank of the town (order of contraction), -1 if the
+     * id is not in use
+     */
+    private int[] ranks;
+    /**
+     * number of towns that have a rank
+     */
+    private int rankCount;
+    /**
+     * for each town id: position of the first upward path in the other arrays;
+     * one additional entry at the end
+     */
+    private int[] upOffsets;
+    /**
+     * for each upward path: id of the town (of higher rank) the path leads to
+     */
+    private int[] upTargets;
+    /**
+     * for each upward path: its weight (a shortcut may be longer than the
+     * range of an int even if each path fits into it)
+     */
+    private long[] upWeights;
+    /**
+     * for each upward path: id of the town that is skipped by the shortcut,
+     * -1 if the path is an original path of the graph
+     */
+    private int[] upMiddles;
+
+    /**
+     * for each shortcut added while contracting (also the ones replaced by a
+     * shorter shortcut later): ids of its two towns and of the skipped town;
+     * needed to find the remaining paths when contracting again
+     */
+    private int[][] shortcuts;
+    /**
+     * for each shortcut added while contracting: its weight
+     */
+    private long[] shortcutWeights;
+    /**
+     * number of shortcuts added while contracting
+     */
+    private int shortcutCount;
+    /**
+     * paths that have been added to the graph since the hierarchy has been
+     * created or repaired: ids of the two towns and weight
+     */
+    private ArrayList<int[]> addedPaths;
+
+    /**
+     * while preprocessing: for each town the ids of its neighbors
+     */
+    private int[][] neighbors;
+    /**
+     * while preprocessing: for each town the weights of the paths to its
+     * neighbors
+     */
+    private long[][] weights;
+    /**
+     * while preprocessing: for each town the middle towns of the paths to its
+     * neighbors
+     */
+    private int[][] middles;
+    /**
+     * while preprocessing: for each town the number of its neighbors
+     */
+    private int[] degrees;
+    /**
+     * while preprocessing: for each town true if the town has been contracted
+     */
+    private boolean[] contracted;
+    /**
+     * while preprocessing: for each town the number of contracted neighbors
+     */
+    private int[] contractedNeighbors;
+    /**
+     * while preprocessing: for each town the number of the witness search it
+     * is a target of (see witnessSearch)
+     */
+    private int[] witnessTargets;
+    /**
+     * while preprocessing: number of the current witness search
+     */
+    private int witnessSearchCount;
+
+    /**
+     * This creates a new contraction hierarchy of a graph.
+     *
+     * @param pSnapshot
+     *            the snapshot of the graph
+     * @param pCriterion
+     *            the criterion (time or route) the hierarchy is created for
+     * @throws IllegalInputException
+     *             if the criterion is invalid (e.g. all or optimal)
+     */
+    public ContractionHierarchy(GraphSnapshot pSnapshot, Criterion pCriterion) throws IllegalInputException {
+        snapshot = pSnapshot;
+        criterion = pCriterion;
+        shortcuts = new int[16][];
+        shortcutWeights = new long[16];
+        shortcutCount = 0;
+        addedPaths = new ArrayList<int[]>();
+        initialization(pSnapshot.getWeights(pCriterion));
+        contractAll();
+        preprocessingFinished();
+    }
+
+    /**
+     * This method frees the data that is only needed while preprocessing.
+     */
+    private void preprocessingFinished() {
+        neighbors = null;
+        weights = null;
+        middles = null;
+        degrees = null;
+        contracted = null;
+        contractedNeighbors = null;
+        witnessTargets = null;
+    }
+
+    /**
+     * This method copies the paths of the snapshot into lists that can be
+     * modified while preprocessing.
+     *
+     * @param pWeights
+     *            weight of each path in the snapshot
+     */
+    private void initialization(int[] pWeights) {
+        int townCount = snapshot.getIdCapacity();
+        int[] offsets = snapshot.getOffsets();
+        int[] targets = snapshot.getTargets();
+        neighbors = new int[townCount][];
+        weights = new long[townCount][];
+        middles = new int[townCount][];
+        degrees = new int[townCount];
+        contracted = new boolean[townCount];
+        contractedNeighbors = new int[townCount];
+        witnessTargets = new int[townCount];
+        witnessSearchCount = 0;
+        ranks = new int[townCount];
+        for (int town = 0; town < townCount; town++) {
+            int degree = offsets[town + 1] - offsets[town];
+            neighbors[town] = new int[Math.max(degree, 1)];
+            weights[town] = new long[Math.max(degree, 1)];
+            middles[town] = new int[Math.max(degree, 1)];
+            for (int i = offsets[town]; i < offsets[town + 1]; i++) {
+                addOrImprove(town, targets[i], pWeights[i], -1);
+            }
+        }
+    }
+
+    /**
+     * This method contracts all towns, the least important ones first.
+     * Importance is measured by the number of shortcuts that would be added
+     * minus the number of paths that would be removed, plus the number of
+     * neighbors that have already been contracted (so the contraction is
+     * spread evenly over the graph).
+     */
+    private void contractAll() {
+        int townCount = snapshot.getIdCapacity();
+        int[] priorities = new int[townCount];
+        // entries: priority in the upper 32 bits, town id in the lower ones
+        PriorityQueue<Long> queue = new PriorityQueue<Long>();
+        for (int town = 0; town < townCount; town++) {
+            if (snapshot.getTown(town) != null) {
+                priorities[town] = priority(town);
+                queue.add(entry(priorities[town], town));
+            } else {
+                // id not in use
+                contracted[town] = true;
+                ranks[town] = -1;
+            }
+        }
+        int rank = 0;
+        while (!queue.isEmpty()) {
+            long first = queue.poll();
+            int town = (int) first;
+            if (contracted[town] || (int) (first >> 32) != priorities[town]) {
+                // old entry, a newer one is in the queue
+                continue;
+            }
+            // lazy update: importance might have changed in the meantime
+            int priority = priority(town);
+            if (!queue.isEmpty() && priority > (int) (queue.peek() >> 32)) {
+                priorities[town] = priority;
+                queue.add(entry(priority, town));
+                continue;
+            }
+            ranks[town] = rank;
+            rank++;
+            contract(town, true);
+            // neighbors have lost a neighbor and possibly gained shortcuts
+            for (int i = 0; i < degrees[town]; i++) {
+                int neighbor = neighbors[town][i];
+                contractedNeighbors[neighbor]++;
+                if (degrees[neighbor] <= EAGER_UPDATE_DEGREE) {
+                    priorities[neighbor] = priority(neighbor);
+                    queue.add(entry(priorities[neighbor], neighbor));
+                }
+            }
+        }
+        rankCount = rank;
+        createUpwardPaths(0);
+    }
+
+    /**
+     * This method creates an entry of the priority queue.
+     *
+     * @param pPriority
+     *            the priority of the town
+     * @param pTown
+     *            the id of the town
+     * @return the entry
+     */
+    private long entry(int pPriority, int pTown) {
+        return ((long) pPriority << 32) | pTown;
+    }
+
+    /**
+     * This method calculates the importance of a town that has not been
+     * contracted yet.
+     *
+     * @param pTown
+     *            id of the town
+     * @return the importance (lower values are contracted first)
+     */
+    private int priority(int pTown) {
+        int shortcuts;
+        if (degrees[pTown] > ESTIMATED_PRIORITY_DEGREE) {
+            // such a town is contracted late, when most neighbors are gone
+            shortcuts = (int) Math.min((long) degrees[pTown] * (degrees[pTown] - 1) / 2, MAX_ESTIMATED_SHORTCUTS);
+        } else {
+            shortcuts = contract(pTown, false);
+        }
+        return shortcuts - degrees[pTown] + contractedNeighbors[pTown];
+    }
+
+    /**
+     * This method contracts a town: for each pair of remaining neighbors, a
+     * shortcut is needed if the route through the town is shorter than every
+     * other route between the two neighbors (witness).
+     *
+     * @param pTown
+     *            id of the town
+     * @param pAddShortcuts
+     *            true if the town is really contracted, false if only the
+     *            number of needed shortcuts is counted
+     * @return the number of needed shortcuts
+     */
+    private int contract(int pTown, boolean pAddShortcuts) {
+        int shortcuts = 0;
+        for (int i = 0; i < degrees[pTown]; i++) {
+            int from = neighbors[pTown][i];
+            // longest route through pTown starting at this neighbor
+            long maxWeight = 0;
+            for (int j = i + 1; j < degrees[pTown]; j++) {
+                maxWeight = Math.max(maxWeight, weights[pTown][i] + weights[pTown][j]);
+            }
+            if (maxWeight == 0) {
+                continue;
+            }
+            // the search can stop as soon as all these neighbors are visited
+            witnessSearchCount++;
+            for (int j = i + 1; j < degrees[pTown]; j++) {
+                witnessTargets[neighbors[pTown][j]] = witnessSearchCount;
+            }
+            SearchWorkspace witness = witnessSearch(from, pTown, maxWeight, degrees[pTown] - i - 1);
+            for (int j = i + 1; j < degrees[pTown]; j++) {
+                int to = neighbors[pTown][j];
+                long weight = weights[pTown][i] + weights[pTown][j];
+                if (witness.getMark(to) > weight) {
+                    // no witness found --> shortcut needed
+                    shortcuts++;
+                    if (pAddShortcuts && addOrImprove(from, to, weight, pTown)) {
+                        addOrImprove(to, from, weight, pTown);
+                        logShortcut(from, to, weight, pTown);
+                    }
+                }
+            }
+            witness.release();
+        }
+        if (pAddShortcuts) {
+            contracted[pTown] = true;
+            // remove the town from the lists of its neighbors
+            for (int i = 0; i < degrees[pTown]; i++) {
+                remove(neighbors[pTown][i], pTown);
+            }
+        }
+        return shortcuts;
+    }
+
+    /**
+     * This method searches for the shortest routes from one town to its
+     * surrounding towns, without using the town that is being contracted and
+     * without using contracted towns. The search stops if all targets have
+     * been visited, if routes get longer than a maximal weight or if too many
+     * towns or paths have been looked at.
+     *
+     * @param pFrom
+     *            id of the town the search starts at
+     * @param pIgnored
+     *            id of the town that must not be used
+     * @param pMaxWeight
+     *            the search stops when this weight is reached
+     * @param pTargetCount
+     *            number of towns that are targets of this search
+     * @return the workspace containing the found marks, has to be released
+     *         after use
+     */
+    private SearchWorkspace witnessSearch(int pFrom, int pIgnored, long pMaxWeight, int pTargetCount) {
+        SearchWorkspace workspace = SearchWorkspace.acquire(snapshot.getIdCapacity());
+        workspace.reach(pFrom, 0, -1);
+        int visited = 0;
+        int scanned = 0;
+        int remainingTargets = pTargetCount;
+        while (!workspace.isHeapEmpty() && workspace.peekMark() <= pMaxWeight && visited < WITNESS_VISIT_LIMIT
+                && scanned < WITNESS_SCAN_LIMIT && remainingTargets > 0) {
+            int town = workspace.visitNext();
+            visited++;
+            if (witnessTargets[town] == witnessSearchCount) {
+                remainingTargets--;
+            }
+            long mark = workspace.getMark(town);
+            for (int i = 0; i < degrees[town] && scanned < WITNESS_SCAN_LIMIT; i++, scanned++) {
+                int neighbor = neighbors[town][i];
+                long newMark = mark + weights[town][i];
+                if (neighbor != pIgnored && !workspace.isVisited(neighbor) && newMark <= pMaxWeight
+                        && newMark < workspace.getMark(neighbor)) {
+                    workspace.reach(neighbor, newMark, town);
+                }
+            }
+        }
+        return workspace;
+    }
+
+    /**
+     * This method adds a path from one town to another one. If a path already
+     * exists, it is only replaced if the new one has a smaller weight.
+     *
+     * @param pFrom
+     *            id of the town the path starts at
+     * @param pTo
+     *            id of the town the path leads to
+     * @param pWeight
+     *            weight of the path
+     * @param pMiddle
+     *            id of the skipped town (-1 if it is an original path)
+     * @return true if the path has been added or replaced, false if the
+     *         existing one is not longer
+     */
+    private boolean addOrImprove(int pFrom, int pTo, long pWeight, int pMiddle) {
+        for (int i = 0; i < degrees[pFrom]; i++) {
+            if (neighbors[pFrom][i] == pTo) {
+                if (pWeight < weights[pFrom][i]) {
+                    weights[pFrom][i] = pWeight;
+                    middles[pFrom][i] = pMiddle;
+                    return true;
+                }
+                return false;
+            }
+        }
+        if (degrees[pFrom] == neighbors[pFrom].length) {
+            // lists are full --> make them larger
+            int length = 2 * neighbors[pFrom].length;
+            neighbors[pFrom] = Arrays.copyOf(neighbors[pFrom], length);
+            weights[pFrom] = Arrays.copyOf(weights[pFrom], length);
+            middles[pFrom] = Arrays.copyOf(middles[pFrom], length);
+        }
+        neighbors[pFrom][degrees[pFrom]] = pTo;
+        weights[pFrom][degrees[pFrom]] = pWeight;
+        middles[pFrom][degrees[pFrom]] = pMiddle;
+        degrees[pFrom]++;
+        return true;
+    }
+
+    /**
+     * This method remembers a shortcut that has been added while contracting.
+     *
+     * @param pFrom
+     *            id of one town of the shortcut
+     * @param pTo
+     *            id of the other town of the shortcut
+     * @param pWeight
+     *            weight of the shortcut
+     * @param pMiddle
+     *            id of the skipped town
+     */
+    private void logShortcut(int pFrom, int pTo, long pWeight, int pMiddle) {
+        if (shortcutCount == shortcuts.length) {
+            shortcuts = Arrays.copyOf(shortcuts, 2 * shortcuts.length);
+            shortcutWeights = Arrays.copyOf(shortcutWeights, 2 * shortcutWeights.length);
+        }
+        shortcuts[shortcutCount] = new int[] {pFrom, pTo, pMiddle };
+        shortcutWeights[shortcutCount] = pWeight;
+        shortcutCount++;
+    }
+
+    /**
+     * This method removes a town from the list of neighbors of another town.
+     *
+     * @param pFrom
+     *            id of the town whose list is changed
+     * @param pTo
+     *            id of the town that is removed from the list
+     */
+    private void remove(int pFrom, int pTo) {
+        for (int i = 0; i < degrees[pFrom]; i++) {
+            if (neighbors[pFrom][i] == pTo) {
+                // move last entry to the free position
+                int last = degrees[pFrom] - 1;
+                neighbors[pFrom][i] = neighbors[pFrom][last];
+                weights[pFrom][i] = weights[pFrom][last];
+                middles[pFrom][i] = middles[pFrom][last];
+                degrees[pFrom]--;
+                return;
+            }
+        }
+    }
+
+    /**
+     * This method creates the compact arrays of upward paths. When a town is
+     * contracted, its remaining list of neighbors consists of exactly the
+     * towns with a higher rank.
+     *
+     * @param pFirstRank
+     *            towns with a lower rank have not been contracted again, their
+     *            upward paths are taken from the old arrays
+     */
+    private void createUpwardPaths(int pFirstRank) {
+        int townCount = snapshot.getIdCapacity();
+        int[] oldOffsets = upOffsets;
+        int[] oldTargets = upTargets;
+        long[] oldWeights = upWeights;
+        int[] oldMiddles = upMiddles;
+        upOffsets = new int[townCount + 1];
+        for (int town = 0; town < townCount; town++) {
+            int length = 0;
+            if (ranks[town] >= pFirstRank) {
+                length = degrees[town];
+            } else if (ranks[town] >= 0) {
+                length = oldOffsets[town + 1] - oldOffsets[town];
+            }
+            upOffsets[town + 1] = upOffsets[town] + length;
+        }
+        upTargets = new int[upOffsets[townCount]];
+        upWeights = new long[upOffsets[townCount]];
+        upMiddles = new int[upOffsets[townCount]];
+        for (int town = 0; town < townCount; town++) {
+            int length = upOffsets[town + 1] - upOffsets[town];
+            if (ranks[town] >= pFirstRank) {
+                System.arraycopy(neighbors[town], 0, upTargets, upOffsets[town], length);
+                System.arraycopy(weights[town], 0, upWeights, upOffsets[town], length);
+                System.arraycopy(middles[town], 0, upMiddles, upOffsets[town], length);
+            } else if (length > 0) {
+                System.arraycopy(oldTargets, oldOffsets[town], upTargets, upOffsets[town], length);
+                System.arraycopy(oldWeights, oldOffsets[town], upWeights, upOffsets[town], length);
+                System.arraycopy(oldMiddles, oldOffsets[town], upMiddles, upOffsets[town], length);
+            }
+        }
+    }
+
+    /**
+     * This method remembers a path that has been added to the graph, so that
+     * the hierarchy is repaired when it is needed next (see update).
+     *
+     * @param pFrom
+     *            id of one town of the path
+     * @param pTo
+     *            id of the other town of the path
+     * @param pPath
+     *            the new path
+     */
+    void pathAdded(int pFrom, int pTo, Path pPath) {
+        int weight = Criterion.TIME.equals(criterion) ? pPath.getTime() : pPath.getLength();
+        addedPaths.add(new int[] {pFrom, pTo, weight });
+    }
+
+    /**
+     * This method repairs the hierarchy after paths (and towns) have been
+     * added to the graph. The new towns get the highest ranks. A new path is
+     * only needed if the hierarchy does not know a route between its towns
+     * that is at most as long; then the towns from the lower ranked town of
+     * the path upward are contracted again, in the same order as before.
+     *
+     * @param pSnapshot
+     *            the snapshot of the modified graph
+     * @throws IllegalInputException
+     *             if the criterion of the hierarchy is invalid
+     */
+    void update(GraphSnapshot pSnapshot) throws IllegalInputException {
+        // the old hierarchy is still valid for the towns it knows
+        boolean[] needed = new boolean[addedPaths.size()];
+        for (int i = 0; i < needed.length; i++) {
+            int[] path = addedPaths.get(i);
+            needed[i] = !isRanked(path[0]) || !isRanked(path[1]) || distance(path[0], path[1]) > path[2];
+        }
+        snapshot = pSnapshot;
+        int townCount = snapshot.getIdCapacity();
+        int oldCount = ranks.length;
+        ranks = Arrays.copyOf(ranks, townCount);
+        Arrays.fill(ranks, oldCount, townCount, -1);
+        int firstRank = rankCount;
+        for (int town = 0; town < townCount; town++) {
+            if (snapshot.getTown(town) != null && ranks[town] < 0) {
+                ranks[town] = rankCount;
+                rankCount++;
+            }
+        }
+        for (int i = 0; i < needed.length; i++) {
+            if (needed[i]) {
+                int[] path = addedPaths.get(i);
+                firstRank = Math.min(firstRank, Math.min(ranks[path[0]], ranks[path[1]]));
+            }
+        }
+        addedPaths.clear();
+        if (firstRank == rankCount) {
+            // nothing has to be contracted again
+            return;
+        }
+        contractAgain(firstRank, snapshot.getWeights(criterion));
+    }
+
+    /**
+     * This method checks whether a town id had a rank before the graph has
+     * been modified.
+     *
+     * @param pTown
+     *            id of the town
+     * @return true if the town has a rank
+     */
+    private boolean isRanked(int pTown) {
+        return pTown < ranks.length && ranks[pTown] >= 0;
+    }
+
+    /**
+     * This method calculates the weight of the shortest route between two
+     * towns in the hierarchy (like ContractionHierarchyQuery, but without
+     * the route).
+     *
+     * @param pFrom
+     *            id of one town
+     * @param pTo
+     *            id of the other town
+     * @return weight of the shortest route, Long.MAX_VALUE if there is none
+     */
+    private long distance(int pFrom, int pTo) {
+        SearchWorkspace forward = SearchWorkspace.acquire(ranks.length);
+        SearchWorkspace backward = SearchWorkspace.acquire(ranks.length);
+        forward.reach(pFrom, 0, -1);
+        backward.reach(pTo, 0, -1);
+        long best = pFrom == pTo ? 0 : Long.MAX_VALUE;
+        boolean forwardActive = true;
+        boolean backwardActive = true;
+        while (forwardActive || backwardActive) {
+            forwardActive = !forward.isHeapEmpty() && forward.peekMark() < best;
+            backwardActive = !backward.isHeapEmpty() && backward.peekMark() < best;
+            if (!forwardActive && !backwardActive) {
+                break;
+            }
+            boolean forwardNext = forwardActive && (!backwardActive || forward.peekMark() <= backward.peekMark());
+            SearchWorkspace current = forwardNext ? forward : backward;
+            SearchWorkspace other = forwardNext ? backward : forward;
+            int town = current.visitNext();
+            long mark = current.getMark(town);
+            for (int i = upOffsets[town]; i < upOffsets[town + 1]; i++) {
+                long newMark = mark + upWeights[i];
+                if (newMark < current.getMark(upTargets[i])) {
+                    current.reach(upTargets[i], newMark, town);
+                    if (other.getMark(upTargets[i]) != Long.MAX_VALUE) {
+                        best = Math.min(best, newMark + other.getMark(upTargets[i]));
+                    }
+                }
+            }
+        }
+        forward.release();
+        backward.release();
+        return best;
+    }
+
+    /**
+     * This method contracts the towns from a certain rank upward again, in the
+     * order of their ranks. The remaining paths before contracting the first
+     * of them are the paths of the graph between these towns and the
+     * shortcuts that have been added when contracting the towns before.
+     *
+     * @param pFirstRank
+     *            rank of the first town that is contracted again
+     * @param pWeights
+     *            weight of each path in the snapshot
+     */
+    private void contractAgain(int pFirstRank, int[] pWeights) {
+        int townCount = snapshot.getIdCapacity();
+        int[] offsets = snapshot.getOffsets();
+        int[] targets = snapshot.getTargets();
+        neighbors = new int[townCount][];
+        weights = new long[townCount][];
+        middles = new int[townCount][];
+        degrees = new int[townCount];
+        contracted = new boolean[townCount];
+        witnessTargets = new int[townCount];
+        witnessSearchCount = 0;
+        int[] townsByRank = new int[rankCount];
+        for (int town = 0; town < townCount; town++) {
+            contracted[town] = ranks[town] < pFirstRank;
+            if (ranks[town] >= 0) {
+                townsByRank[ranks[town]] = town;
+            }
+            int degree = offsets[town + 1] - offsets[town];
+            neighbors[town] = new int[Math.max(degree, 1)];
+            weights[town] = new long[Math.max(degree, 1)];
+            middles[town] = new int[Math.max(degree, 1)];
+        }
+        for (int town = 0; town < townCount; town++) {
+            for (int i = offsets[town]; i < offsets[town + 1] && !contracted[town]; i++) {
+                if (!contracted[targets[i]]) {
+                    addOrImprove(town, targets[i], pWeights[i], -1);
+                }
+            }
+        }
+        // shortcuts of the towns contracted before stay, the others are added
+        // again while contracting
+        int kept = 0;
+        for (int i = 0; i < shortcutCount; i++) {
+            int[] shortcut = shortcuts[i];
+            if (ranks[shortcut[2]] < pFirstRank) {
+                shortcuts[kept] = shortcut;
+                shortcutWeights[kept] = shortcutWeights[i];
+                kept++;
+                if (!contracted[shortcut[0]] && !contracted[shortcut[1]]) {
+                    addOrImprove(shortcut[0], shortcut[1], shortcutWeights[i], shortcut[2]);
+                    addOrImprove(shortcut[1], shortcut[0], shortcutWeights[i], shortcut[2]);
+                }
+            }
+        }
+        shortcutCount = kept;
+        for (int rank = pFirstRank; rank < rankCount; rank++) {
+            contract(townsByRank[rank], true);
+        }
+        createUpwardPaths(pFirstRank);
+        preprocessingFinished();
+    }
+
+    /**
+     * This method finds the position of the upward path between two towns.
+     *
+     * @param pTownA
+     *            id of one of the towns
+     * @param pTownB
+     *            id of the other town
+     * @return position of the path in the upward arrays, -1 if there is no
+     *         such path
+     */
+    public int findUpwardPath(int pTownA, int pTownB) {
+        // the path is saved at the town with the lower rank
+        int lower = ranks[pTownA] < ranks[pTownB] ? pTownA : pTownB;
+        int higher = lower == pTownA ? pTownB : pTownA;
+        for (int i = upOffsets[lower]; i < upOffsets[lower + 1]; i++) {
+            if (upTargets[i] == higher) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * This method returns the snapshot of the graph the hierarchy belongs to.
+     *
+     * @return the snapshot
+     */
+    public GraphSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * This method returns the positions of the first upward path of each town.
+     *
+     * @return the offsets of the upward paths
+     */
+    public int[] getUpOffsets() {
+        return upOffsets;
+    }
+
+    /**
+     * This method returns the target of each upward path.
+     *
+     * @return the ids of the towns the upward paths lead to
+     */
+    public int[] getUpTargets() {
+        return upTargets;
+    }
+
+    /**
+     * This method returns the weight of each upward path.
+     *
+     * @return the weights of the upward paths
+     */
+    public long[] getUpWeights() {
+        return upWeights;
+    }
+
+    /**
+     * This method returns the skipped town of each upward path.
+     *
+     * @return the ids of the skipped towns, -1 for original paths
+     */
+    public int[] getUpMiddles() {
+        return upMiddles;
+    }
+}
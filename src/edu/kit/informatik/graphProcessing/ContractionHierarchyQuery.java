@@ -0,0 +1,202 @@
+package edu.kit.informatik.graphProcessing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import edu.kit.informatik.userInterface.IllegalInputException;
+
+/**
+ * This class finds the shortest or fastest route between two towns using the
+ * contraction hierarchy of the graph (see ContractionHierarchy). Two searches
+ * start at the start and the destination town and only follow upward paths;
+ * the best town in which both searches meet lies on the shortest route.
+ * Afterwards, the shortcuts of the found route are replaced by the paths they
+ * skip.<br>
+ * The hierarchy is created by the graph the first time it is needed and
+ * created again after the graph has been modified.
+ *
+ * @author Johanna Thiemich
+ * @version 1.0
+ */
+public class ContractionHierarchyQuery extends ShortestPathAlgorithm {
+    /**
+     * graph in which is being searched
+     */
+    private Graph graph;
+    /**
+     * the hierarchy that is used
+     */
+    private ContractionHierarchy hierarchy;
+    /**
+     * data of the search starting at the start town
+     */
+    private SearchWorkspace forward;
+    /**
+     * data of the search starting at the destination town
+     */
+    private SearchWorkspace backward;
+    /**
+     * weight of the best route found so far
+     */
+    private long bestWeight;
+    /**
+     * the town in which the searches meet on the best route found so far, -1
+     * if no route has been found yet
+     */
+    private int meetingTown;
+
+    /**
+     * This creates a new query.
+     *
+     * @param pGraph
+     *            the graph that is being searched in
+     * @param pStart
+     *            start town of the route to be found
+     * @param pDestination
+     *            destination town of the route to be found
+     * @throws ObjectNotFoundException
+     *             if start town (pStart) or destination town (pDestination) do
+     *             not exist in given graph or are null
+     */
+    public ContractionHierarchyQuery(Graph pGraph, Town pStart, Town pDestination) throws ObjectNotFoundException {
+        super(pGraph, pStart, pDestination);
+        graph = pGraph;
+    }
+
+    /**
+     * This method executes the actual algorithm and saves the found route. In
+     * case of the criterion being time, it finds the fastest route, if the<br>
+     * criterion is route it finds the shortest route.
+     *
+     * @param pCriterion
+     *            criterion that is going to be applied in the calculation
+     * @throws IllegalInputException
+     *             if the criterion is invalid
+     */
+    @Override
+    public void calculate(Criterion pCriterion) throws IllegalInputException {
+        hierarchy = graph.getContractionHierarchy(pCriterion);
+        int start = getStart().getId();
+        int destination = getDestination().getId();
+        forward = SearchWorkspace.acquire(getSnapshot().getIdCapacity());
+        backward = SearchWorkspace.acquire(getSnapshot().getIdCapacity());
+        forward.reach(start, 0, -1);
+        backward.reach(destination, 0, -1);
+        bestWeight = Long.MAX_VALUE;
+        meetingTown = -1;
+        if (start == destination) {
+            bestWeight = 0;
+            meetingTown = start;
+        }
+
+        /*
+         * unlike a normal bidirectional search, each search has to continue
+         * until its minimal mark is not smaller than the best found weight
+         */
+        boolean forwardActive = true;
+        boolean backwardActive = true;
+        while (forwardActive || backwardActive) {
+            forwardActive = !forward.isHeapEmpty() && forward.peekMark() < bestWeight;
+            backwardActive = !backward.isHeapEmpty() && backward.peekMark() < bestWeight;
+            if (forwardActive && (!backwardActive || forward.peekMark() <= backward.peekMark())) {
+                visitNext(forward, backward);
+            } else if (backwardActive) {
+                visitNext(backward, forward);
+            }
+        }
+
+        if (meetingTown < 0) {
+            // no route found: route only contains the destination
+            ArrayList<Town> noRoute = new ArrayList<Town>();
+            noRoute.add(getDestination());
+            setResult(noRoute, 0);
+        } else {
+            setResult(unpackRoute(), bestWeight);
+        }
+        forward.release();
+        backward.release();
+        forward = null;
+        backward = null;
+    }
+
+    /**
+     * This method visits the next town of one of the searches and follows its
+     * upward paths. If a town has been reached by both searches, a route from
+     * start to destination has been found.
+     *
+     * @param pThis
+     *            the search that continues
+     * @param pOther
+     *            the search coming from the other side
+     */
+    private void visitNext(SearchWorkspace pThis, SearchWorkspace pOther) {
+        int[] offsets = hierarchy.getUpOffsets();
+        int[] targets = hierarchy.getUpTargets();
+        long[] weights = hierarchy.getUpWeights();
+        int currentTown = pThis.visitNext();
+        long currentMark = pThis.getMark(currentTown);
+        for (int i = offsets[currentTown]; i < offsets[currentTown + 1]; i++) {
+            int town = targets[i];
+            long newMark = currentMark + weights[i];
+            if (newMark < pThis.getMark(town)) {
+                pThis.reach(town, newMark, currentTown);
+                if (pOther.getMark(town) != Long.MAX_VALUE) {
+                    // both searches have reached this town --> possible route
+                    long routeWeight = newMark + pOther.getMark(town);
+                    if (routeWeight < bestWeight) {
+                        bestWeight = routeWeight;
+                        meetingTown = town;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * This method creates the route of towns out of the found route in the
+     * hierarchy by replacing each shortcut by the paths it skips.
+     *
+     * @return the route from start to destination
+     */
+    private ArrayList<Town> unpackRoute() {
+        // towns of the route in the hierarchy: start ... meeting town ... end
+        ArrayList<Integer> upwardRoute = new ArrayList<Integer>();
+        for (Town town : traceBack(forward, meetingTown)) {
+            upwardRoute.add(town.getId());
+        }
+        int town = backward.getPredecessor(meetingTown);
+        while (town >= 0) {
+            upwardRoute.add(town);
+            town = backward.getPredecessor(town);
+        }
+
+        ArrayList<Town> route = new ArrayList<Town>();
+        route.add(getSnapshot().getTown(upwardRoute.get(0)));
+        // stack of paths that still have to be unpacked (from, to)
+        int[] stack = new int[16];
+        for (int i = 1; i < upwardRoute.size(); i++) {
+            int size = 0;
+            stack[size++] = upwardRoute.get(i - 1);
+            stack[size++] = upwardRoute.get(i);
+            while (size > 0) {
+                int to = stack[--size];
+                int from = stack[--size];
+                int middle = hierarchy.getUpMiddles()[hierarchy.findUpwardPath(from, to)];
+                if (middle < 0) {
+                    // original path
+                    route.add(getSnapshot().getTown(to));
+                } else {
+                    if (size + 4 > stack.length) {
+                        stack = Arrays.copyOf(stack, 2 * stack.length);
+                    }
+                    // first part has to be unpacked first --> pushed last
+                    stack[size++] = middle;
+                    stack[size++] = to;
+                    stack[size++] = from;
+                    stack[size++] = middle;
+                }
+            }
+        }
+        return route;
+    }
+}
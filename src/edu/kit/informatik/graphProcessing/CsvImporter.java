@@ -0,0 +1,234 @@
+package edu.kit.informatik.graphProcessing;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * This class creates a graph out of an edge list in a *.csv file. Each line
+ * contains one arc: from,to,length[,time]. The first line is skipped if it is
+ * a header (if its length is no number), as are empty lines and lines
+ * beginning with '#'. Blanks around the fields are ignored.<br>
+ * A vertex is either a number, which becomes the town named
+ * ArcMerger.syntheticName(number), or a name matching [A-Za-z-]+, which is
+ * kept (in lower case). If a line has no time, the time of the path is its
+ * length (see ArcMerger, which also describes how the arcs are merged into
+ * paths). The file is read as a stream of byte lines (see ByteLineReader).
+ *
+ * @author Johanna Thiemich
+ * @version 1.0
+ */
+public class CsvImporter {
+    /**
+     * maximal number of fields of a line
+     */
+    private static final int MAX_FIELDS = 4;
+
+    /**
+     * path to the file
+     */
+    private String file;
+    /**
+     * collects the vertices and arcs
+     */
+    private ArcMerger merger;
+    /**
+     * number of each vertex, found by the name of its town
+     */
+    private HashMap<String, Integer> vertices;
+    /**
+     * for each vertex: the vertex as it has been written in the file (the
+     * number, or the name in lower case), to find different vertices getting
+     * the same name
+     */
+    private ArrayList<String> keys;
+    /**
+     * for each field of the current line: position of the first byte
+     */
+    private int[] starts;
+    /**
+     * for each field of the current line: position after the last byte
+     */
+    private int[] ends;
+
+    /**
+     * This creates a new importer of a *.csv file.
+     *
+     * @param pFile
+     *            path of the *.csv file
+     */
+    public CsvImporter(String pFile) {
+        file = pFile;
+        starts = new int[MAX_FIELDS + 1];
+        ends = new int[MAX_FIELDS + 1];
+    }
+
+    /**
+     * This method reads the file and creates the graph.
+     *
+     * @return the graph
+     * @throws IncorrectInputFileException
+     *             if the file contains mistakes or if the graph is not
+     *             connected
+     * @throws IOException
+     *             if the file cannot be read
+     */
+    public Graph importGraph() throws IncorrectInputFileException, IOException {
+        merger = new ArcMerger();
+        vertices = new HashMap<String, Integer>();
+        keys = new ArrayList<String>();
+        ByteLineReader reader = new ByteLineReader(file);
+        try {
+            boolean firstLine = true;
+            while (reader.nextLine()) {
+                byte[] bytes = reader.getBuffer();
+                int count = split(bytes, reader.getLineStart(), reader.getLineEnd());
+                if (starts[0] == ends[0] ? count == 1 : bytes[starts[0]] == '#') {
+                    // empty line or comment
+                    continue;
+                }
+                try {
+                    if (count < MAX_FIELDS - 1 || count > MAX_FIELDS) {
+                        throw new NumberFormatException();
+                    }
+                    int length;
+                    try {
+                        length = GraphBuilder.parseInt(bytes, starts[2], ends[2]);
+                    } catch (NumberFormatException e) {
+                        if (firstLine) {
+                            // header
+                            firstLine = false;
+                            continue;
+                        }
+                        throw e;
+                    }
+                    int from = vertex(bytes, 0);
+                    int to = vertex(bytes, 1);
+                    if (count == MAX_FIELDS) {
+                        merger.addArc(from, to, length, GraphBuilder.parseInt(bytes, starts[3], ends[3]));
+                    } else {
+                        merger.addArc(from, to, length);
+                    }
+                } catch (NumberFormatException e) {
+                    throw new IncorrectInputFileException("Error, line " + (reader.getLineNumber() + 1) + " of "
+                            + file + " is not a valid line (from,to,length[,time]).");
+                }
+                firstLine = false;
+            }
+        } finally {
+            reader.close();
+        }
+        return merger.createGraph();
+    }
+
+    /**
+     * This method splits a line into fields separated by commas. Blanks around
+     * the fields are not part of them.
+     *
+     * @param pBytes
+     *            the buffer
+     * @param pStart
+     *            position of the first byte of the line
+     * @param pEnd
+     *            position after the last byte of the line
+     * @return the number of fields, MAX_FIELDS + 1 if there are more than
+     *         MAX_FIELDS
+     */
+    private int split(byte[] pBytes, int pStart, int pEnd) {
+        int count = 0;
+        int i = pStart;
+        while (count <= MAX_FIELDS) {
+            int start = i;
+            while (i < pEnd && pBytes[i] != ',') {
+                i++;
+            }
+            int end = i;
+            while (start < end && (pBytes[start] == ' ' || pBytes[start] == '\t')) {
+                start++;
+            }
+            while (end > start && (pBytes[end - 1] == ' ' || pBytes[end - 1] == '\t')) {
+                end--;
+            }
+            starts[count] = start;
+            ends[count] = end;
+            count++;
+            if (i == pEnd) {
+                break;
+            }
+            // skip the comma
+            i++;
+        }
+        return count;
+    }
+
+    /**
+     * This method finds the vertex of a field, adding it if it is new.
+     *
+     * @param pBytes
+     *            the buffer
+     * @param pField
+     *            number of the field
+     * @return the number of the vertex in the ArcMerger
+     * @throws NumberFormatException
+     *             if the field is neither a number nor a valid name
+     * @throws IncorrectInputFileException
+     *             if another vertex already has the same name
+     */
+    private int vertex(byte[] pBytes, int pField) throws NumberFormatException, IncorrectInputFileException {
+        int start = starts[pField];
+        int end = ends[pField];
+        if (start == end) {
+            throw new NumberFormatException();
+        }
+        String key;
+        String name;
+        if (isNumber(pBytes, start, end)) {
+            long number = Long.parseLong(new String(pBytes, start, end - start));
+            key = Long.toString(number);
+            name = ArcMerger.syntheticName(number);
+        } else {
+            for (int i = start; i < end; i++) {
+                byte current = pBytes[i];
+                if (!(current >= 'a' && current <= 'z' || current >= 'A' && current <= 'Z' || current == '-')) {
+                    throw new NumberFormatException();
+                }
+            }
+            name = TownNameIndex.toLowerCase(pBytes, start, end);
+            key = name;
+        }
+        Integer vertex = vertices.get(name);
+        if (vertex == null) {
+            vertex = merger.addVertex(name);
+            vertices.put(name, vertex);
+            keys.add(key);
+        } else if (!keys.get(vertex).equals(key)) {
+            throw new IncorrectInputFileException("Error, the vertices " + keys.get(vertex) + " and " + key
+                    + " would both become the town " + name + ".");
+        }
+        return vertex;
+    }
+
+    /**
+     * This method checks whether some bytes are the digits of a number.
+     *
+     * @param pBytes
+     *            the buffer
+     * @param pStart
+     *            position of the first byte
+     * @param pEnd
+     *            position after the last byte
+     * @return true if all bytes are digits and the number fits into a long
+     */
+    private static boolean isNumber(byte[] pBytes, int pStart, int pEnd) {
+        // 18 digits always fit into a long
+        if (pEnd - pStart > 18) {
+            return false;
+        }
+        for (int i = pStart; i < pEnd; i++) {
+            if (pBytes[i] < '0' || pBytes[i] > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
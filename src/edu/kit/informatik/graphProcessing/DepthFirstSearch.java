@@ -1,314 +1,695 @@
-package edu.kit.informatik.graphProcessing;
-
-import java.util.ArrayList;
-import java.util.HashMap;
-
-import edu.kit.informatik.Terminal;
-import edu.kit.informatik.userInterface.IllegalInputException;
-
-/**
- * This class executes the depth first search algorithm which is used to find
- * all routes between two certain towns in a graph.
- * 
- * @author Johanna Thiemich
- * @version 1.0
- *
- */
-public class DepthFirstSearch {
-
-    /**
-     * graph in which is being searched
-     */
-    private Graph graph;
-    /**
-     * starting town
-     */
-    private Town start;
-    /**
-     * destination town
-     */
-    private Town destination;
-    /**
-     * memorizes which towns have already been visited (and do not have to be
-     * visited again)
-     */
-    private HashMap<Town, Boolean> visited;
-    /**
-     * memorizes which neighbors of a town have already been visited (for each
-     * town in the graph)
-     */
-    private HashMap<Town, Town> unvisitedNeighbors;
-    /**
-     * for each town in the graph: remembers the belonging neighbors
-     */
-    private HashMap<Town, HashMap<Town, Town>> adjList;
-    /**
-     * safes all the found routes between start and destination
-     */
-    private ArrayList<ArrayList<Town>> routes;
-    /**
-     * safes optimal route (means: (neededTime + length is minimal)
-     */
-    private ArrayList<Town> optimalRoute;
-    /**
-     * remembers whether the calculate method has already been invoked
-     */
-    private boolean calculated;
-    /**
-     * remembers whether the findOptimalRoute method has already been invoked
-     */
-    private boolean foundOptimalRoute;
-    /**
-     * the weight of the optimal route (in km + min)
-     */
-    private Integer weightOptimalRoute;
-
-    /**
-     * This creates a new DepthFirstSearch, which finds all routes between two
-     * towns in a graph and the optimal one.<br>
-     * Optimal means: length + time is minimal.
-     * 
-     * @param pGraph
-     *            the graph in which is being searched for the routes
-     * @param pStart
-     *            starting town; start of every found route
-     * @param pDestination
-     *            destination town; end of every found route
-     * @throws ObjectNotFoundException
-     *             if starting and/or destination town do not exist in the given
-     *             graph or if one or both of the given towns is null
-     */
-    public DepthFirstSearch(Graph pGraph, Town pStart, Town pDestination) throws ObjectNotFoundException {
-        routes = new ArrayList<ArrayList<Town>>();
-        graph = pGraph;
-        // check if given graph contains start and destination
-        if (graph.getTowns().contains(pStart) && graph.getTowns().contains(pDestination) && pStart != null
-                && pDestination != null) {
-            start = pStart;
-            destination = pDestination;
-            visited = new HashMap<Town, Boolean>();
-            adjList = new HashMap<Town, HashMap<Town, Town>>();
-            unvisitedNeighbors = new HashMap<Town, Town>();
-            optimalRoute = new ArrayList<Town>();
-            // calculate and findOptimalRoute both have not been invoked yet
-            calculated = false;
-            foundOptimalRoute = false;
-            initialization();
-        } else { // towns not found in graph or towns are null
-            throw new ObjectNotFoundException("Error, this graph does not contain one or both of the towns.");
-        }
-    }
-
-    /**
-     * This method runs the algorithm to find all possible routes. After
-     * invoking this method, the routes are available.
-     */
-    public void calculate() {
-        calculated = true;
-        // invoking recursive method
-        recursion(adjList, visited, start, new ArrayList<Town>());
-        // adding the destination town to every found route
-        for (ArrayList<Town> oneRoute : routes) {
-            oneRoute.add(destination);
-        }
-    }
-
-    /**
-     * This is a recursive method to find all possible routes.
-     * 
-     * @param adjLists
-     *            for each town in the graph: remembers the belonging neighbors,
-     *            acts like an adjacency list
-     * @param visited
-     *            a HashMap memorizing which towns have already been visited,
-     *            this is needed so that the algorithm stops when all towns have
-     *            been looked at.
-     * @param pCurrentTown
-     *            the current town that is being looked at
-     * @param route
-     *            saves the predecessors of the current town, so that the route
-     *            can be recreated in case it turns out that this is a possible
-     *            <br>
-     *            route from start to destination
-     */
-    private void recursion(HashMap<Town, HashMap<Town, Town>> adjLists, HashMap<Town, Boolean> visited,
-            Town pCurrentTown, ArrayList<Town> route) {
-        // current town has will have been looked at --> visited true
-        visited.put(pCurrentTown, true);
-        // save current town to the current route
-        route.add(pCurrentTown);
-
-        /*
-         * look at all the neighbors (and their neighbors and their neighbors
-         * and so on) until all towns have been visited
-         */
-        for (Town neighbor : adjLists.get(pCurrentTown).values()) {
-            // only look at town if it has not been visited
-            if (visited.get(neighbor) == false) {
-                /*
-                 * one route from start to destination has been found --> add to
-                 * all routes
-                 */
-                if (neighbor.equals(destination)) {
-                    routes.add(route);
-                } else {
-                    // still towns left to look at --> invoke method again
-                    recursion(adjLists, new HashMap<Town, Boolean>(visited), neighbor, new ArrayList<Town>(route));
-                }
-            }
-        }
-    }
-
-    /**
-     * initializes the depth first search object for calculation
-     */
-    private void initialization() {
-
-        for (Town town : graph.getTowns()) {
-            /*
-             * all towns: not visited, add all neighbors of every town to
-             * HashMap
-             */
-            visited.put(town, false);
-            adjList.put(town, town.getNeighbors());
-        }
-        for (Town town : start.getNeighbors().values()) {
-            // put the neighbors of the start to the HashMap
-            unvisitedNeighbors.put(town, town);
-        }
-
-    }
-
-    /**
-     * This method chooses the optimal route out of all found routes. Optimal
-     * means: (the length of the route) + (time needed to drive route) is
-     * minimal
-     */
-    public void findOptimalRoute() {
-        foundOptimalRoute = true;
-        // start value for weight of optimal route is negative
-        int tmpWeightOptimalRoute = -1;
-        int currentWeightTimeSquare = 0;
-        int currentWeightLengthSquare = 0;
-        // make sure all possible routes have already been found
-        if (!calculated) {
-            calculate();
-        }
-        // compare the weights of the routes
-        for (ArrayList<Town> oneRoute : routes) {
-            currentWeightTimeSquare = oneRoutesWeight(oneRoute, Criterion.TIME)
-                    * oneRoutesWeight(oneRoute, Criterion.TIME);
-            currentWeightLengthSquare = oneRoutesWeight(oneRoute, Criterion.ROUTE)
-                    * oneRoutesWeight(oneRoute, Criterion.ROUTE);
-            if (currentWeightTimeSquare + currentWeightLengthSquare < tmpWeightOptimalRoute
-                    || tmpWeightOptimalRoute < 0) {
-                /*
-                 * found a route with a smaller weight --> update optimal route
-                 * and weight
-                 */
-                optimalRoute = oneRoute;
-                tmpWeightOptimalRoute = currentWeightTimeSquare + currentWeightLengthSquare;
-            }
-
-        }
-        weightOptimalRoute = tmpWeightOptimalRoute;
-
-    }
-
-    /**
-     * This method calculates the weight of one route by a specific criterion
-     * (time or route)
-     * 
-     * @param pRoute
-     *            route of which the weight is being calculated
-     * @param pCriterion
-     *            criterion which is going to be applied (time or route)
-     * @return the weight of the complete route (according to a the criterion)
-     */
-    private int oneRoutesWeight(ArrayList<Town> pRoute, Criterion pCriterion) {
-        int weight = 0;
-        for (int i = 1; i < pRoute.size(); i++) {
-            try {
-                weight = weight + graph.findPath(pRoute.get(i), pRoute.get(i - 1)).getWeight(pCriterion);
-            } catch (IllegalInputException e) {
-                /*
-                 * this should not happen, the method is only invoked by
-                 * Criterion.TIME and Criterion.ROUTE
-                 */
-                return -1;
-            }
-        }
-        return weight;
-    }
-
-    /**
-     * This method prints all routes that have been found. Each route is printed
-     * in one line; the name of each town is separated by a whitespace.
-     */
-    public void printAllRoutes() {
-        if (!calculated) {
-            calculate();
-        }
-        String oneLine = "";
-        for (ArrayList<Town> oneRoute : routes) {
-            oneLine = "";
-            for (int i = 0; i < oneRoute.size(); i++) {
-                /*
-                 * creating the output string by summing up all names of the
-                 * towns
-                 */
-                oneLine = oneLine + oneRoute.get(i).getName();
-                if (i < oneRoute.size() - 1) {
-                    oneLine = oneLine + " ";
-                }
-            }
-            // output string
-            Terminal.printLine(oneLine);
-        }
-    }
-
-    /**
-     * This method prints the optimal route that has been found. The route is
-     * printed in one line, the name of each town is separated by a whitespace.
-     */
-    public void printOptimalRoute() {
-        // making sure the optimal route has already been found
-        if (!foundOptimalRoute) {
-            // check: all routes already found?
-            if (!calculated) {
-                // find all routes first...
-                calculate();
-            }
-            // ...then find optimal one
-            findOptimalRoute();
-        }
-        String output = "";
-        for (int i = 0; i < optimalRoute.size(); i++) {
-            // summing up output string
-            output = output + optimalRoute.get(i).getName();
-            if (i < optimalRoute.size() - 1) {
-                output = output + " ";
-            }
-        }
-        Terminal.printLine(output);
-    }
-
-    /**
-     * This method returns all the found routes between start and destination.
-     * 
-     * @return an Array List of all found routes between start and destination
-     */
-    public ArrayList<ArrayList<Town>> getRoutes() {
-        return routes;
-    }
-
-    /**
-     * This method returns the weight of the optimal route.
-     * 
-     * @return the weight of the optimal route
-     */
-    public Integer getWeightOptimalRoute() {
-        return weightOptimalRoute;
-    }
-
-}
+package edu.kit.informatik.graphProcessing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import edu.kit.informatik.Terminal;
+import edu.kit.informatik.userInterface.IllegalInputException;
+
+/**
+ * This class executes the depth first search algorithm which is used to find
+ * all routes between two certain towns in a graph.<br>
+ * The search works on a snapshot of the graph and does not use recursion:
+ * the current route is kept on a stack that grows when a town is entered and
+ * shrinks when the search goes back, the towns on the current route are
+ * marked in a bit set and the length and time of the route are updated with
+ * each step. So the memory needed does not depend on the number of routes.
+ * <br>
+ * The graph is only read, all data of one search is saved in this object, so
+ * several searches may run on the same graph at the same time as long as the
+ * graph is not modified.
+ * 
+ * @author Johanna Thiemich
+ * @version 1.0
+ *
+ */
+public class DepthFirstSearch {
+
+    /**
+     * graph in which is being searched
+     */
+    private Graph graph;
+    /**
+     * starting town
+     */
+    private Town start;
+    /**
+     * destination town
+     */
+    private Town destination;
+    /**
+     * safes optimal route (means: (neededTime + length is minimal)
+     */
+    private ArrayList<Town> optimalRoute;
+    /**
+     * the weight of the optimal route (in km + min)
+     */
+    private Long weightOptimalRoute;
+    /**
+     * compact copy of the graph in which is being searched
+     */
+    private GraphSnapshot snapshot;
+    /**
+     * bit set of the towns that may be part of a route between start and
+     * destination (see BlockCutTree)
+     */
+    private long[] routeTowns;
+    /**
+     * for each town id: length of the shortest route to the destination (only
+     * used to find the optimal route)
+     */
+    private long[] lowerLengths;
+    /**
+     * for each town id: time of the fastest route to the destination (only
+     * used to find the optimal route)
+     */
+    private long[] lowerTimes;
+    /**
+     * weight of the best route found so far (only used to find the optimal
+     * route)
+     */
+    private long bestWeight;
+
+    /**
+     * This creates a new DepthFirstSearch, which finds all routes between two
+     * towns in a graph and the optimal one.<br>
+     * Optimal means: length + time is minimal.
+     * 
+     * @param pGraph
+     *            the graph in which is being searched for the routes
+     * @param pStart
+     *            starting town; start of every found route
+     * @param pDestination
+     *            destination town; end of every found route
+     * @throws ObjectNotFoundException
+     *             if starting and/or destination town do not exist in the given
+     *             graph or if one or both of the given towns is null
+     */
+    public DepthFirstSearch(Graph pGraph, Town pStart, Town pDestination) throws ObjectNotFoundException {
+        graph = pGraph;
+        // check if given graph contains start and destination
+        if (graph.containsTown(pStart) && graph.containsTown(pDestination)) {
+            BlockCutTree blockCutTree = graph.getBlockCutTree();
+            snapshot = blockCutTree.getSnapshot();
+            start = graph.findTown(pStart.getName());
+            destination = graph.findTown(pDestination.getName());
+            // towns in other blocks can never be part of a route
+            routeTowns = blockCutTree.townsBetween(start.getId(), destination.getId());
+            optimalRoute = new ArrayList<Town>();
+        } else { // towns not found in graph or towns are null
+            throw new ObjectNotFoundException("Error, this graph does not contain one or both of the towns.");
+        }
+    }
+
+    /**
+     * This method runs the algorithm to find all possible routes and hands
+     * each route to the given sink as soon as it has been found. The routes
+     * are not saved in this object.
+     *
+     * @param pSink
+     *            receives the found routes; the search stops as soon as the
+     *            sink returns false
+     */
+    public void enumerateRoutes(RouteSink pSink) {
+        search(new int[] {start.getId()}, pSink);
+    }
+
+    /**
+     * This method creates a search for all routes, which can be continued
+     * after each route. The search has to be started with a prefix (see
+     * RouteCursor.reset). The cursors of one DepthFirstSearch may be used by
+     * several threads at the same time.
+     *
+     * @return the search, no prefix has been given yet
+     */
+    RouteCursor createCursor() {
+        return new RouteCursor(false);
+    }
+
+    /**
+     * This method finds the optimal route. Optimal means: (the length of the
+     * route) + (time needed to drive route) is minimal.<br>
+     * Instead of creating all routes first, the depth first search is
+     * repeated with pruning (branch and bound): the shortest and the fastest
+     * route from each town to the destination are calculated beforehand. If
+     * even with these the current route cannot become better than the best
+     * route found so far, the route is not followed any further. The most
+     * promising neighbors are visited first, so a good route is found early.
+     *
+     * @throws IllegalInputException
+     *             if the weight of the optimal route does not fit into a long
+     */
+    public void findOptimalRoute() throws IllegalInputException {
+        computeLowerBounds();
+        bestWeight = Long.MAX_VALUE;
+        int[] bestRoute = search(new int[] {start.getId()}, null);
+        if (bestRoute != null && bestWeight == Long.MAX_VALUE) {
+            throw new IllegalInputException("Error, the weight of the optimal route is too large.");
+        }
+        setOptimalRoute(bestRoute, bestWeight);
+    }
+
+    /**
+     * This method calculates the shortest and the fastest route from each town
+     * to the destination, which are needed to find the optimal route.
+     */
+    private void computeLowerBounds() {
+        lowerLengths = snapshot.shortestRoutes(destination.getId(), snapshot.getLengths());
+        lowerTimes = snapshot.shortestRoutes(destination.getId(), snapshot.getTimes());
+    }
+
+    /**
+     * This method saves the optimal route after it has been found.
+     *
+     * @param pRoute
+     *            ids of the towns of the optimal route, null if there is none
+     * @param pWeight
+     *            weight of the optimal route
+     */
+    private void setOptimalRoute(int[] pRoute, long pWeight) {
+        optimalRoute = new ArrayList<Town>();
+        // start value for weight of optimal route is negative
+        weightOptimalRoute = -1L;
+        if (pRoute != null) {
+            for (int town : pRoute) {
+                optimalRoute.add(snapshot.getTown(town));
+            }
+            weightOptimalRoute = pWeight;
+        }
+        // data of the search is not needed anymore
+        lowerLengths = null;
+        lowerTimes = null;
+    }
+
+    /**
+     * This method executes the depth first search (see RouteCursor).
+     *
+     * @param pPrefix
+     *            ids of the towns every route begins with (at least the start
+     *            town)
+     * @param pSink
+     *            receives the found routes, null if the optimal route is
+     *            searched (with pruning)
+     * @return ids of the towns of the best route found, if the optimal route
+     *         is searched and a route better than bestWeight has been found
+     */
+    private int[] search(int[] pPrefix, RouteSink pSink) {
+        RouteCursor cursor = new RouteCursor(pSink == null);
+        cursor.reset(pPrefix);
+        return cursor.advance(pSink);
+    }
+
+    /**
+     * This method checks whether a town may be part of a route between start
+     * and destination, that means it belongs to one of the blocks between
+     * start and destination.
+     *
+     * @param pTown
+     *            id of the town
+     * @return true if the town may be part of a route
+     */
+    boolean mayBeOnRoute(int pTown) {
+        return (routeTowns[pTown >> 6] & (1L << pTown)) != 0;
+    }
+
+    /**
+     * This method finds the position of the path between two towns in the
+     * snapshot.
+     *
+     * @param pFrom
+     *            id of the town the path starts at
+     * @param pTo
+     *            id of the town the path leads to
+     * @return the position of the path, -1 if the towns are not neighbors
+     */
+    private int findPosition(int pFrom, int pTo) {
+        int[] offsets = snapshot.getOffsets();
+        int[] targets = snapshot.getTargets();
+        for (int i = offsets[pFrom]; i < offsets[pFrom + 1]; i++) {
+            if (targets[i] == pTo) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * This method puts the paths of a town that have to be looked at on the
+     * stack of candidates. Paths to towns on the current route and to towns
+     * that cannot be part of any route are left out.
+     * If bounds are given (optimal route), paths that cannot lead to a better
+     * route are left out, too, and the others are sorted by their bound.
+     *
+     * @param pTown
+     *            id of the town
+     * @param pLength
+     *            length of the route up to the town
+     * @param pTime
+     *            time of the route up to the town
+     * @param pTop
+     *            first free position of the stack
+     * @param pOnRoute
+     *            bit set of the towns on the current route
+     * @param pCandidates
+     *            the stack of the paths
+     * @param pBounds
+     *            for each position of the stack: lower bound of the weight of
+     *            the best route using this path, null if all routes are saved
+     * @return the new first free position of the stack
+     */
+    private int pushCandidates(int pTown, long pLength, long pTime, int pTop, long[] pOnRoute, int[] pCandidates,
+            long[] pBounds) {
+        int[] offsets = snapshot.getOffsets();
+        int[] targets = snapshot.getTargets();
+        int[] lengths = snapshot.getLengths();
+        int[] times = snapshot.getTimes();
+        int top = pTop;
+        for (int i = offsets[pTown]; i < offsets[pTown + 1]; i++) {
+            int town = targets[i];
+            if ((pOnRoute[town >> 6] & (1L << town)) != 0 || !mayBeOnRoute(town)) {
+                continue;
+            }
+            if (pBounds == null) {
+                pCandidates[top++] = i;
+            } else if (lowerLengths[town] != Long.MAX_VALUE) {
+                long length = pLength + lengths[i] + lowerLengths[town];
+                long time = pTime + times[i] + lowerTimes[town];
+                long bound = ParetoSearch.weight(length, time);
+                // a bound that is too large is only kept while there is no
+                // other route
+                if (bound < bestWeight || bestWeight == Long.MAX_VALUE) {
+                    // insert sorted by bound
+                    int position = top++;
+                    while (position > pTop && pBounds[position - 1] > bound) {
+                        pCandidates[position] = pCandidates[position - 1];
+                        pBounds[position] = pBounds[position - 1];
+                        position--;
+                    }
+                    pCandidates[position] = i;
+                    pBounds[position] = bound;
+                }
+            }
+        }
+        return top;
+    }
+
+    /**
+     * This method hands a route from start to destination that has been found
+     * to the sink.
+     *
+     * @param pRoute
+     *            ids of the towns of the route without the destination
+     * @param pDepth
+     *            position of the last town in pRoute
+     * @param pSink
+     *            receives the route
+     * @return true if the search shall continue
+     */
+    private boolean foundRoute(int[] pRoute, int pDepth, RouteSink pSink) {
+        ArrayList<Town> oneRoute = new ArrayList<Town>(pDepth + 2);
+        for (int i = 0; i <= pDepth; i++) {
+            oneRoute.add(snapshot.getTown(pRoute[i]));
+        }
+        oneRoute.add(destination);
+        return pSink.accept(oneRoute);
+    }
+
+    /**
+     * This method prints all routes. Each route is printed in one line; the
+     * name of each town is separated by a whitespace.
+     */
+    public void printAllRoutes() {
+        printAllRoutes(0, -1);
+    }
+
+    /**
+     * This method prints some of the routes: the first pOffset routes are
+     * skipped, then at most pLimit routes are printed. The routes are printed
+     * as soon as they are found and are not saved; they are found by several
+     * threads (see ParallelRouteEnumerator), but printed in the order of the
+     * depth first search.
+     *
+     * @param pOffset
+     *            number of routes that are skipped
+     * @param pLimit
+     *            maximal number of routes that are printed, negative for no
+     *            limit
+     */
+    public void printAllRoutes(final int pOffset, final int pLimit) {
+        if (pLimit == 0) {
+            return;
+        }
+        RouteSink printer = new RouteSink() {
+            /**
+             * number of routes handed to this sink so far
+             */
+            private int count = 0;
+
+            @Override
+            public boolean accept(ArrayList<Town> pRoute) {
+                count++;
+                if (count > pOffset) {
+                    printRoute(pRoute);
+                }
+                // continue until the limit has been reached
+                return pLimit < 0 || count < (long) pOffset + pLimit;
+            }
+        };
+        new ParallelRouteEnumerator(this).enumerateRoutes(printer);
+    }
+
+    /**
+     * This method prints one route in one line; the name of each town is
+     * separated by a whitespace. All commands print their routes this way.
+     *
+     * @param pRoute
+     *            the route to be printed
+     */
+    public static void printRoute(ArrayList<Town> pRoute) {
+        StringBuilder oneLine = new StringBuilder();
+        for (int i = 0; i < pRoute.size(); i++) {
+            oneLine.append(pRoute.get(i).getName());
+            if (i < pRoute.size() - 1) {
+                oneLine.append(" ");
+            }
+        }
+        Terminal.printLine(oneLine.toString());
+    }
+
+    /**
+     * This method returns the snapshot of the graph that is searched.
+     *
+     * @return the snapshot
+     */
+    GraphSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * This method returns the starting town.
+     *
+     * @return the starting town
+     */
+    Town getStart() {
+        return start;
+    }
+
+    /**
+     * This method returns the destination town.
+     *
+     * @return the destination town
+     */
+    Town getDestination() {
+        return destination;
+    }
+
+    /**
+     * This method returns the weight of the optimal route.
+     * 
+     * @return the weight of the optimal route
+     */
+    public Long getWeightOptimalRoute() {
+        return weightOptimalRoute;
+    }
+
+    /**
+     * The state of a depth first search. All routes from start to destination
+     * that begin with a prefix and do not visit a town twice are looked at; a
+     * route ends as soon as it reaches the destination.<br>
+     * For each town on the current route, the paths that still have to be
+     * looked at are kept on a stack (candidates). When looking for the optimal
+     * route, only the paths that can still lead to a better route are put on
+     * this stack, sorted by their lower bound.<br>
+     * The state is kept between two invocations of advance, so the search can
+     * stop after any route and be continued later (by another thread). The
+     * state can also be saved, so that the cursor (and its arrays, which are
+     * as large as the graph) can be used for another prefix in the meantime.
+     */
+    class RouteCursor {
+        /**
+         * true if the optimal route is searched (with pruning)
+         */
+        private boolean optimal;
+        /**
+         * bit set: towns on the current route
+         */
+        private long[] onRoute;
+        /**
+         * for each depth: town of the route at this depth
+         */
+        private int[] route;
+        /**
+         * for each depth: length of the route up to the town
+         */
+        private long[] routeLengths;
+        /**
+         * for each depth: time of the route up to the town
+         */
+        private long[] routeTimes;
+        /**
+         * for each depth: next position of its paths on the stack
+         */
+        private int[] next;
+        /**
+         * for each depth: position after its paths on the stack
+         */
+        private int[] end;
+        /**
+         * the stack of the paths (positions in the snapshot) to look at
+         */
+        private int[] candidates;
+        /**
+         * for each position of the stack: lower bound of the weight of the
+         * best route using this path, null if all routes are searched
+         */
+        private long[] bounds;
+        /**
+         * depth of the last town of the prefix
+         */
+        private int prefixDepth;
+        /**
+         * depth of the last town of the current route, less than prefixDepth
+         * if the search is finished
+         */
+        private int depth;
+
+        /**
+         * This creates a new search without a prefix (see reset).
+         *
+         * @param pOptimal
+         *            true if the optimal route is searched (with pruning)
+         */
+        RouteCursor(boolean pOptimal) {
+            optimal = pOptimal;
+            int capacity = snapshot.getIdCapacity();
+            onRoute = new long[(capacity + 63) >> 6];
+            route = new int[capacity + 1];
+            routeLengths = new long[capacity + 1];
+            routeTimes = new long[capacity + 1];
+            next = new int[capacity + 1];
+            end = new int[capacity + 1];
+            candidates = new int[snapshot.getTargets().length];
+            bounds = optimal ? new long[candidates.length] : null;
+            // no route yet --> the search is finished
+            prefixDepth = 0;
+            depth = -1;
+        }
+
+        /**
+         * This method starts the search for the routes beginning with a
+         * prefix. The state of the search before is lost.
+         *
+         * @param pPrefix
+         *            ids of the towns every route begins with (at least the
+         *            start town)
+         */
+        void reset(int[] pPrefix) {
+            int[] lengths = snapshot.getLengths();
+            int[] times = snapshot.getTimes();
+            clearRoute();
+            prefixDepth = pPrefix.length - 1;
+            depth = prefixDepth;
+            routeLengths[0] = 0;
+            routeTimes[0] = 0;
+            for (int i = 0; i <= depth; i++) {
+                route[i] = pPrefix[i];
+                onRoute[route[i] >> 6] |= 1L << route[i];
+                if (i > 0) {
+                    int position = findPosition(route[i - 1], route[i]);
+                    routeLengths[i] = routeLengths[i - 1] + lengths[position];
+                    routeTimes[i] = routeTimes[i - 1] + times[position];
+                }
+            }
+            // only the paths of the last town of the prefix are looked at
+            next[depth] = 0;
+            end[depth] = pushCandidates(route[depth], routeLengths[depth], routeTimes[depth], 0, onRoute,
+                    candidates, bounds);
+        }
+
+        /**
+         * This method saves the state of the search. Only the current route
+         * and its paths on the stack are copied.
+         *
+         * @return the state, to be continued with restore
+         */
+        CursorState save() {
+            CursorState state = new CursorState();
+            state.prefixDepth = prefixDepth;
+            state.depth = depth;
+            state.route = Arrays.copyOf(route, depth + 1);
+            state.routeLengths = Arrays.copyOf(routeLengths, depth + 1);
+            state.routeTimes = Arrays.copyOf(routeTimes, depth + 1);
+            state.next = Arrays.copyOf(next, depth + 1);
+            state.end = Arrays.copyOf(end, depth + 1);
+            // the paths of all towns of the route lie below the last end
+            int stackSize = depth >= 0 ? end[depth] : 0;
+            state.candidates = Arrays.copyOf(candidates, stackSize);
+            state.bounds = bounds != null ? Arrays.copyOf(bounds, stackSize) : null;
+            return state;
+        }
+
+        /**
+         * This method continues a search whose state has been saved (by this
+         * or another cursor of the same DepthFirstSearch). The state of the
+         * search before is lost.
+         *
+         * @param pState
+         *            the saved state
+         */
+        void restore(CursorState pState) {
+            clearRoute();
+            prefixDepth = pState.prefixDepth;
+            depth = pState.depth;
+            int length = pState.route.length;
+            System.arraycopy(pState.route, 0, route, 0, length);
+            System.arraycopy(pState.routeLengths, 0, routeLengths, 0, length);
+            System.arraycopy(pState.routeTimes, 0, routeTimes, 0, length);
+            System.arraycopy(pState.next, 0, next, 0, length);
+            System.arraycopy(pState.end, 0, end, 0, length);
+            System.arraycopy(pState.candidates, 0, candidates, 0, pState.candidates.length);
+            if (bounds != null && pState.bounds != null) {
+                System.arraycopy(pState.bounds, 0, bounds, 0, pState.bounds.length);
+            }
+            for (int i = 0; i <= depth; i++) {
+                onRoute[route[i] >> 6] |= 1L << route[i];
+            }
+        }
+
+        /**
+         * This method removes the towns of the current route (including the
+         * prefix) from the bit set.
+         */
+        private void clearRoute() {
+            for (int i = 0; i <= depth; i++) {
+                onRoute[route[i] >> 6] &= ~(1L << route[i]);
+            }
+        }
+
+        /**
+         * This method continues the search until the sink wants no more
+         * routes or all routes have been found.
+         *
+         * @param pSink
+         *            receives the found routes, null if the optimal route is
+         *            searched
+         * @return ids of the towns of the best route found, if the optimal
+         *         route is searched and a route better than bestWeight has
+         *         been found
+         */
+        int[] advance(RouteSink pSink) {
+            int[] bestRoute = null;
+            int[] targets = snapshot.getTargets();
+            int[] lengths = snapshot.getLengths();
+            int[] times = snapshot.getTimes();
+            while (depth >= prefixDepth) {
+                if (next[depth] == end[depth]
+                        || optimal && bounds[next[depth]] >= bestWeight && bestWeight != Long.MAX_VALUE) {
+                    // all (promising) paths of this town looked at --> go back
+                    onRoute[route[depth] >> 6] &= ~(1L << route[depth]);
+                    depth--;
+                    continue;
+                }
+                int position = candidates[next[depth]++];
+                int town = targets[position];
+                long length = routeLengths[depth] + lengths[position];
+                long time = routeTimes[depth] + times[position];
+                if (town == destination.getId()) {
+                    // one route from start to destination has been found
+                    if (!optimal) {
+                        if (!foundRoute(route, depth, pSink)) {
+                            // the search goes on here when advance is invoked again
+                            return null;
+                        }
+                    } else if (ParetoSearch.weight(length, time) < bestWeight || bestRoute == null) {
+                        // better than the best route found so far
+                        bestWeight = ParetoSearch.weight(length, time);
+                        bestRoute = Arrays.copyOf(route, depth + 2);
+                        bestRoute[depth + 1] = town;
+                    }
+                } else {
+                    // still towns left to look at --> continue with this town
+                    depth++;
+                    route[depth] = town;
+                    routeLengths[depth] = length;
+                    routeTimes[depth] = time;
+                    onRoute[town >> 6] |= 1L << town;
+                    next[depth] = end[depth - 1];
+                    end[depth] = pushCandidates(town, length, time, end[depth - 1], onRoute, candidates, bounds);
+                }
+            }
+            return bestRoute;
+        }
+
+        /**
+         * This method checks whether all routes of the prefix have been found.
+         *
+         * @return true if the search is finished
+         */
+        boolean isFinished() {
+            return depth < prefixDepth;
+        }
+    }
+
+    /**
+     * The saved state of a RouteCursor (see RouteCursor.save).
+     */
+    static class CursorState {
+        /**
+         * depth of the last town of the prefix
+         */
+        private int prefixDepth;
+        /**
+         * depth of the last town of the current route
+         */
+        private int depth;
+        /**
+         * for each depth: town of the route at this depth
+         */
+        private int[] route;
+        /**
+         * for each depth: length of the route up to the town
+         */
+        private long[] routeLengths;
+        /**
+         * for each depth: time of the route up to the town
+         */
+        private long[] routeTimes;
+        /**
+         * for each depth: next position of its paths on the stack
+         */
+        private int[] next;
+        /**
+         * for each depth: position after its paths on the stack
+         */
+        private int[] end;
+        /**
+         * the stack of the paths up to the paths of the last town
+         */
+        private int[] candidates;
+        /**
+         * the lower bounds of the paths on the stack, null if all routes are
+         * searched
+         */
+        private long[] bounds;
+    }
+}
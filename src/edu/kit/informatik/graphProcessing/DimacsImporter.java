@@ -0,0 +1,229 @@
+package edu.kit.informatik.graphProcessing;
+
+import java.io.IOException;
+
+/**
+ * This class creates a graph out of a file in the format of the DIMACS
+ * shortest path challenge (*.gr), like the road networks published for it.
+ * The file contains these lines (the fields are separated by blanks):
+ * <ul>
+ * <li>c: a comment</li>
+ * <li>p sp n m: the graph has n vertices (numbered from 1 to n) and m arcs;
+ * this line comes before all arcs</li>
+ * <li>a u v w: an arc from vertex u to vertex v with the weight w</li>
+ * </ul>
+ * The weights of the file become the lengths of the paths. The challenge
+ * publishes the travel times of a road network in a second file with the same
+ * arcs; if such a file is given, its weights become the times of the paths,
+ * otherwise the time of each path is its length. The arcs are merged into
+ * paths as described in ArcMerger. Vertex u becomes the town named
+ * ArcMerger.syntheticName(u), e.g. vertex 1 becomes "vb".<br>
+ * Both files are read as a stream of byte lines (see ByteLineReader), so only
+ * the vertices and the merged paths are kept in memory.
+ *
+ * @author Johanna Thiemich
+ * @version 1.0
+ */
+public class DimacsImporter {
+    /**
+     * maximal number of fields of a line
+     */
+    private static final int MAX_FIELDS = 4;
+
+    /**
+     * path to the file containing the lengths
+     */
+    private String file;
+    /**
+     * path to the file containing the times, null if there is none
+     */
+    private String timeFile;
+    /**
+     * collects the vertices and arcs
+     */
+    private ArcMerger merger;
+    /**
+     * for each field of the current line: position of the first byte
+     */
+    private int[] starts;
+    /**
+     * for each field of the current line: position after the last byte
+     */
+    private int[] ends;
+
+    /**
+     * This creates a new importer of a DIMACS file.
+     *
+     * @param pFile
+     *            path of the *.gr file; its weights become the lengths of the
+     *            paths
+     */
+    public DimacsImporter(String pFile) {
+        file = pFile;
+        starts = new int[MAX_FIELDS + 1];
+        ends = new int[MAX_FIELDS + 1];
+    }
+
+    /**
+     * This method sets the file containing the times of the paths.
+     *
+     * @param pTimeFile
+     *            path of a *.gr file with the same vertices as the file of the
+     *            lengths; its weights become the times of the paths
+     */
+    public void setTimeFile(String pTimeFile) {
+        timeFile = pTimeFile;
+    }
+
+    /**
+     * This method reads the file(s) and creates the graph.
+     *
+     * @return the graph
+     * @throws IncorrectInputFileException
+     *             if a file contains mistakes, if the time file contains an arc
+     *             that is not in the file of the lengths or if the graph is not
+     *             connected
+     * @throws IOException
+     *             if a file cannot be read
+     */
+    public Graph importGraph() throws IncorrectInputFileException, IOException {
+        merger = new ArcMerger();
+        readFile(file, false);
+        if (timeFile != null) {
+            readFile(timeFile, true);
+        }
+        return merger.createGraph();
+    }
+
+    /**
+     * This method reads one file.
+     *
+     * @param pFile
+     *            path of the file
+     * @param pTimes
+     *            false if the weights are the lengths of the paths (the
+     *            vertices are created by this file), true if they are the times
+     * @throws IncorrectInputFileException
+     *             if the file contains mistakes
+     * @throws IOException
+     *             if the file cannot be read
+     */
+    private void readFile(String pFile, boolean pTimes) throws IncorrectInputFileException, IOException {
+        ByteLineReader reader = new ByteLineReader(pFile);
+        try {
+            boolean problemLine = false;
+            while (reader.nextLine()) {
+                byte[] bytes = reader.getBuffer();
+                int count = split(bytes, reader.getLineStart(), reader.getLineEnd());
+                if (count == 0 || bytes[starts[0]] == 'c' && ends[0] - starts[0] == 1) {
+                    // empty line or comment
+                    continue;
+                }
+                try {
+                    if (isField(bytes, 0, 'p') && count == MAX_FIELDS && !problemLine) {
+                        int vertexCount = GraphBuilder.parseInt(bytes, starts[2], ends[2]);
+                        if (vertexCount < 0) {
+                            throw new NumberFormatException();
+                        }
+                        if (!pTimes) {
+                            for (int i = 1; i <= vertexCount; i++) {
+                                merger.addVertex(ArcMerger.syntheticName(i));
+                            }
+                        } else if (vertexCount != merger.getVertexCount()) {
+                            throw new IncorrectInputFileException("Error, " + pFile + " has " + vertexCount
+                                    + " vertices, but " + file + " has " + merger.getVertexCount() + ".");
+                        }
+                        problemLine = true;
+                    } else if (isField(bytes, 0, 'a') && count == MAX_FIELDS && problemLine) {
+                        int from = vertex(bytes, 1);
+                        int to = vertex(bytes, 2);
+                        int weight = GraphBuilder.parseInt(bytes, starts[3], ends[3]);
+                        if (!pTimes) {
+                            merger.addArc(from, to, weight);
+                        } else if (!merger.setTime(from, to, weight)) {
+                            throw new IncorrectInputFileException("Error, the arc from " + (from + 1) + " to "
+                                    + (to + 1) + " in " + pFile + " is not in " + file + ".");
+                        }
+                    } else {
+                        throw new NumberFormatException();
+                    }
+                } catch (NumberFormatException e) {
+                    throw new IncorrectInputFileException("Error, line " + (reader.getLineNumber() + 1) + " of "
+                            + pFile + " is not a valid DIMACS line.");
+                }
+            }
+            if (!problemLine) {
+                throw new IncorrectInputFileException("Error, " + pFile + " does not contain a problem line "
+                        + "(p sp n m).");
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * This method splits a line into fields separated by blanks or tabs.
+     *
+     * @param pBytes
+     *            the buffer
+     * @param pStart
+     *            position of the first byte of the line
+     * @param pEnd
+     *            position after the last byte of the line
+     * @return the number of fields, MAX_FIELDS + 1 if there are more than
+     *         MAX_FIELDS
+     */
+    private int split(byte[] pBytes, int pStart, int pEnd) {
+        int count = 0;
+        int i = pStart;
+        while (count <= MAX_FIELDS) {
+            while (i < pEnd && (pBytes[i] == ' ' || pBytes[i] == '\t')) {
+                i++;
+            }
+            if (i == pEnd) {
+                break;
+            }
+            starts[count] = i;
+            while (i < pEnd && pBytes[i] != ' ' && pBytes[i] != '\t') {
+                i++;
+            }
+            ends[count] = i;
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * This method checks whether a field consists of one certain character.
+     *
+     * @param pBytes
+     *            the buffer
+     * @param pField
+     *            number of the field
+     * @param pCharacter
+     *            the character
+     * @return true if the field consists of this character
+     */
+    private boolean isField(byte[] pBytes, int pField, char pCharacter) {
+        return ends[pField] - starts[pField] == 1 && pBytes[starts[pField]] == pCharacter;
+    }
+
+    /**
+     * This method parses the number of a vertex (1 to n) out of a field.
+     *
+     * @param pBytes
+     *            the buffer
+     * @param pField
+     *            number of the field
+     * @return the number of the vertex in the ArcMerger (0 to n - 1)
+     * @throws NumberFormatException
+     *             if the field is no number of a vertex
+     */
+    private int vertex(byte[] pBytes, int pField) throws NumberFormatException {
+        int vertex = GraphBuilder.parseInt(pBytes, starts[pField], ends[pField]);
+        if (vertex < 1 || vertex > merger.getVertexCount()) {
+            throw new NumberFormatException();
+        }
+        return vertex - 1;
+    }
+}
@@ -0,0 +1,105 @@
+package edu.kit.informatik.graphProcessing;
+
+/**
+ * This class represents the algorithms that can be chosen (when starting the
+ * program) to find the shortest or fastest route between two towns.
+ *
+ * @author Johanna Thiemich
+ * @version 1.0
+ */
+public enum Engine {
+
+    /**
+     * Engine HIERARCHY: search in the contraction hierarchy of the graph (see
+     * ContractionHierarchyQuery). This is the default engine.
+     */
+    HIERARCHY("hierarchy"),
+
+    /**
+     * Engine DIJKSTRA: Dijkstra algorithm on the graph itself (see
+     * DijkstraAlgorithm).
+     */
+    DIJKSTRA("dijkstra"),
+
+    /**
+     * Engine BIDIRECTIONAL: Dijkstra algorithm starting at both towns at the
+     * same time (see BidirectionalDijkstra).
+     */
+    BIDIRECTIONAL("bidirectional"),
+
+    /**
+     * Engine LANDMARKS: A* algorithm with lower bounds taken from landmarks
+     * (see AltAlgorithm).
+     */
+    LANDMARKS("landmarks");
+
+    /**
+     * the name of the engine, as given by the user
+     */
+    private String name;
+
+    /**
+     * This creates a new engine.
+     *
+     * @param pName
+     *            the name of the engine, as given by the user
+     */
+    Engine(String pName) {
+        name = pName;
+    }
+
+    /**
+     * This method returns the name of this engine, as given by the user.
+     *
+     * @return the name of the engine
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * This method finds an engine by its name. This method ignores large and
+     * lower case.
+     *
+     * @param pName
+     *            the name of the engine
+     * @return the engine with this name, null if there is none
+     */
+    public static Engine find(String pName) {
+        for (Engine engine : values()) {
+            if (engine.name.equalsIgnoreCase(pName)) {
+                return engine;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * This method creates the algorithm of this engine that finds the best
+     * route between two towns.
+     *
+     * @param pGraph
+     *            the graph that is being searched in
+     * @param pStart
+     *            start town of the route to be found
+     * @param pDestination
+     *            destination town of the route to be found
+     * @return the algorithm, the route has not been calculated yet
+     * @throws ObjectNotFoundException
+     *             if start town (pStart) or destination town (pDestination) do
+     *             not exist in given graph or are null
+     */
+    public ShortestPathAlgorithm create(Graph pGraph, Town pStart, Town pDestination)
+            throws ObjectNotFoundException {
+        switch (this) {
+        case DIJKSTRA:
+            return new DijkstraAlgorithm(pGraph, pStart, pDestination);
+        case BIDIRECTIONAL:
+            return new BidirectionalDijkstra(pGraph, pStart, pDestination);
+        case LANDMARKS:
+            return new AltAlgorithm(pGraph, pStart, pDestination);
+        default:
+            return new ContractionHierarchyQuery(pGraph, pStart, pDestination);
+        }
+    }
+}
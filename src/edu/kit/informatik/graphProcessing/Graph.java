@@ -1,319 +1,707 @@
-package edu.kit.informatik.graphProcessing;
-
-import java.util.ArrayList;
-
-import edu.kit.informatik.Terminal;
-import edu.kit.informatik.userInterface.IllegalInputException;
-
-/**
- * This class represents an undirected Graph. The towns represent the vertices
- * and the paths represent the edges.
- * 
- * @author Johanna Thiemich
- * @version 1.0
- */
-public class Graph {
-    /**
-     * Here, the towns represent the vertices
-     */
-    private ArrayList<Town> towns;
-    /**
-     * Here, the paths represent the edges
-     */
-    private ArrayList<Path> paths;
-
-    /**
-     * This creates a new graph object with empty lists of towns and paths.
-     */
-    public Graph() {
-        towns = new ArrayList<Town>();
-        paths = new ArrayList<Path>();
-    }
-
-    /**
-     * This method adds a town to the list of towns.
-     * 
-     * @param pTown
-     *            town that is going to be added
-     */
-    public void addTown(Town pTown) {
-        towns.add(pTown);
-    }
-
-    /**
-     * This method adds a path to the list of paths.
-     * 
-     * @param pPath
-     *            path that is going to be added.
-     * @throws IllegalInputException
-     *             if path already exists in this graph
-     */
-    public void addPath(Path pPath) throws IllegalInputException {
-        // only add path if it does not already exist
-        if (findPath(pPath.getStart(), pPath.getDestination()) == null) {
-            paths.add(pPath);
-            // in case a path is added, for both the start and destination a new
-            // neighbor has to be added
-            for (int i = 0; i < towns.size(); i++) {
-                // adding destination to the start's neighbors
-                if (towns.get(i).equals(pPath.getStart())) {
-                    towns.get(i).addNeighbor(pPath.getDestination());
-                }
-                // adding start to the destination's neighbors
-                if (towns.get(i).equals(pPath.getDestination())) {
-                    towns.get(i).addNeighbor(pPath.getStart());
-                }
-            }
-        } else {
-            throw new IllegalInputException("Error, a path between " + pPath.getStart().getName() + " and "
-                    + pPath.getDestination().getName() + " already exists.");
-        }
-    }
-
-    /**
-     * This method removes a town from this graph's list of towns
-     * 
-     * @param pTown
-     *            town that is going to be removed
-     */
-    private void removeTown(Town pTown) {
-        towns.remove(pTown);
-    }
-
-    /**
-     * This method removes a path from this graph, but only in case the graph is
-     * still related afterwards. If the graph would not be related anymore
-     * afterwards, the edge is not being removed.
-     * 
-     * @param pPath
-     *            path that is supposed to be removed
-     * @throws IllegalInputException
-     *             in case the graph would not be related anymore after removing
-     *             the path. in this case, the path is not removed
-     * @throws ObjectNotFoundException
-     *             if graph does not contain the path (pPath) or if path is null
-     */
-    public void removePath(Path pPath) throws IllegalInputException, ObjectNotFoundException {
-        // check: valid parameter?
-        if (pPath == null || !this.getPaths().contains(pPath)) {
-            throw new ObjectNotFoundException("Error, this path does not exist.");
-        } else {
-            //
-            boolean deleteStart = false;
-            boolean deleteDestination = false;
-            // removing start town from hashmap of neighbors of destination town
-            findPath(pPath.getStart(), pPath.getDestination()).getStart().getNeighbors().remove(pPath.getDestination());
-            // removing destination town from hashmap of neighbors of start town
-            findPath(pPath.getStart(), pPath.getDestination()).getDestination().getNeighbors().remove(pPath.getStart());
-            paths.remove(pPath);
-
-            // save
-            String nameOfDeletedTownStart = "";
-            String nameOfDeletedTownDestination = "";
-            if (pPath.getStart().getNeighbors().size() == 0) {
-                // if a town does not have any neighbors after removing the
-                // path, the town itself is being deleted
-                deleteStart = true;
-                // saving the name of the deleted town so it can be added to
-                // graph again later if needed
-                nameOfDeletedTownStart = pPath.getStart().getName();
-                removeTown(pPath.getStart());
-            }
-            if (pPath.getDestination().getNeighbors().size() == 0) {
-                // town has no neighbors after removing path; remove town
-                deleteDestination = true;
-                // saving name
-                nameOfDeletedTownDestination = pPath.getDestination().getName();
-                removeTown(pPath.getDestination());
-            }
-            // check whether graph is still related
-            if (!checkConnected()) {
-                /*
-                 * graph is not related anymore after removing a path --> adding
-                 * removed towns and path again
-                 */
-                if (deleteStart) {
-                    this.addTown(new Town(nameOfDeletedTownStart));
-                }
-                if (deleteDestination) {
-                    this.addTown(new Town(nameOfDeletedTownDestination));
-                }
-                this.addPath(pPath);
-                throw new IllegalInputException(
-                        "Error, graph would not be connected anymore. Edge between " + pPath.getStart().getName()
-                                + " and " + pPath.getDestination().getName() + " has not been removed.");
-            }
-        }
-
-    }
-
-    /**
-     * This method checks whether this graph is connected.
-     * 
-     * @return true if graph is related, false if graph is not connected
-     */
-    public boolean checkConnected() {
-        // empty graph --> graph is connected
-        if (towns.size() == 0) {
-            return true;
-        } else {
-
-            Town start = towns.get(0);
-            /*
-             * idea: if you can find a route from one town to all the other
-             * towns, the graph is connected so try to find the shortest path
-             * from one town (first town in list) to all the other towns
-             */
-            for (Town town : towns) {
-                // route from one town to itself is not allowed
-                if (!town.equals(start)) {
-                    try {
-                        DijkstraAlgorithm calculator = new DijkstraAlgorithm(this, start, town);
-                        calculator.calculate(Criterion.TIME);
-                        /*
-                         * found route has only a size of 1, so the route only
-                         * contains the destination -->a route from start to
-                         * destination has not been found, graph is not
-                         * connected
-                         */
-                        if (calculator.getRoute().size() == 1) {
-                            return false;
-                        }
-                    } catch (IllegalInputException e) {
-                        // this should not happen since only criterion time is
-                        // being applied
-                        Terminal.printLine(e.getMessage());
-                        return false;
-                    } catch (ObjectNotFoundException e) {
-                        /*
-                         * this should not happen as well since all the towns do
-                         * exist (iterating through list of existing towns)
-                         */
-                        Terminal.printLine(e.getMessage());
-                        return false;
-                    }
-                }
-            }
-            // all routes had a size of at least 2 --> graph is connected
-            return true;
-        }
-    }
-
-    /**
-     * This method finds a path in this graph between two certain towns.
-     * 
-     * @param pStart
-     *            the town where the paths starts or ends
-     * @param pDestination
-     *            the other town where the path starts or ends
-     * @return the path between pStart (town of start) and pDestination (town of
-     *         destination)
-     */
-    public Path findPath(Town pStart, Town pDestination) {
-        for (int i = 0; i < paths.size(); i++) {
-            // undirected graph: destination and start might be switched, so
-            // both possibilities have to be checked
-            if (paths.get(i).getDestination().equals(pStart) && paths.get(i).getStart().equals(pDestination)
-                    || paths.get(i).getDestination().equals(pDestination) && paths.get(i).getStart().equals(pStart)) {
-                return paths.get(i);
-            }
-        }
-        // path not found
-        return null;
-    }
-
-    /**
-     * This method finds a town in this graph by its name.
-     * 
-     * @param pName
-     *            name of the town that is being searched for
-     * @return the town with the given name (pName)
-     */
-    public Town findTown(String pName) {
-        for (int i = 0; i < towns.size(); i++) {
-            // ignore capital letters
-            if (towns.get(i).getName().equalsIgnoreCase(pName)) {
-                return towns.get(i);
-            }
-        }
-        // town not found
-        return null;
-    }
-
-    /**
-     * This prints the graph in serialized form. This means: In the first part,
-     * the towns are listed (one town per line).<br>
-     * In the second part, all paths are listed (in following syntax:
-     * nameOfStart;nameOfDestination;length;neededTime).<br>
-     * Both parts are divided by '--'.
-     */
-    public void print() {
-        // in case of an empty graph, only print an empty line
-        if (towns.size() == 0) {
-            Terminal.printLine("");
-        } else {
-            // vertices
-            printTowns();
-            // separating line
-            Terminal.printLine("--");
-            // edges
-            for (Path path : paths) {
-                Terminal.printLine(path.getStart().getName() + ";" + path.getDestination().getName() + ";"
-                        + path.getLength() + ";" + path.getTime());
-            }
-        }
-    }
-
-    /**
-     * This method prints all towns (name of each town in its own line).
-     */
-    public void printTowns() {
-        if (towns.size() > 0)
-            for (Town town : towns) {
-                Terminal.printLine(town.getName());
-            }
-        else {
-            Terminal.printLine("");
-        }
-    }
-
-    /**
-     * This method prints all the neighbors of a town (name of each neighbor in
-     * its own line).
-     * 
-     * @param pTown
-     *            town whose neighbors are being printed
-     * @throws ObjectNotFoundException
-     *             in case this graph does not contain pTown or if pTown is null
-     */
-    public void printNeighbors(Town pTown) throws ObjectNotFoundException {
-        // check: valid parameter?
-        if (towns.contains(pTown) && pTown != null) {
-            for (Town town : pTown.getNeighbors().values()) {
-                Terminal.printLine(town.getName());
-            }
-        } else {
-            // town not found or town is null
-            throw new ObjectNotFoundException("Error, this town does not exist.");
-        }
-    }
-
-    /**
-     * This method returns the list of towns of this graph.
-     * 
-     * @return the vertices (= list of towns) of this graph
-     */
-    public ArrayList<Town> getTowns() {
-        return towns;
-    }
-
-    /**
-     * This method returns the list of paths of this graph.
-     * 
-     * @return the edges (= list of paths) of this graph
-     */
-    public ArrayList<Path> getPaths() {
-        return paths;
-    }
-
-}
+package edu.kit.informatik.graphProcessing;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import edu.kit.informatik.Terminal;
+import edu.kit.informatik.userInterface.IllegalInputException;
+
+/**
+ * This class represents an undirected Graph. The towns represent the vertices
+ * and the paths represent the edges.
+ * 
+ * @author Johanna Thiemich
+ * @version 1.0
+ */
+public class Graph {
+    /**
+     * maximal number of shortest path trees kept at the same time
+     */
+    private static final int MAX_SHORTEST_PATH_TREES = 16;
+
+    /**
+     * Here, the towns represent the vertices
+     */
+    private ArrayList<Town> towns;
+    /**
+     * Here, the paths represent the edges
+     */
+    private ArrayList<Path> paths;
+    /**
+     * index of all towns, the key is the lower case name of the town
+     */
+    private HashMap<String, Town> townIndex;
+    /**
+     * index of all paths, the key is created out of the ids of both towns
+     * (see method pathKey)
+     */
+    private HashMap<Long, Path> pathIndex;
+    /**
+     * for each id: the town with this id (null if the id is not in use)
+     */
+    private ArrayList<Town> townsById;
+    /**
+     * ids of removed towns, they are given to new towns first
+     */
+    private ArrayList<Integer> freeIds;
+    /**
+     * compact copy of this graph used by the algorithms, null if it has to
+     * be created again (after the graph has been modified)
+     */
+    private GraphSnapshot snapshot;
+    /**
+     * contraction hierarchies of this graph (one for each criterion), empty if
+     * they have to be created again (after the graph has been modified)
+     */
+    private HashMap<Criterion, ContractionHierarchy> hierarchies;
+    /**
+     * landmark indexes of this graph (one for each criterion), empty if they
+     * have to be created again (after the graph has been modified)
+     */
+    private HashMap<Criterion, LandmarkIndex> landmarkIndexes;
+    /**
+     * block-cut tree of the current state of this graph, null if it has not
+     * been created yet or the graph has been modified since
+     */
+    private BlockCutTree blockCutTree;
+    /**
+     * searches of the Dijkstra Algorithm from single towns (key: criterion
+     * and id of the town), in the order in which they have been used
+     */
+    private LinkedHashMap<String, ShortestPathTree> shortestPathTrees;
+    /**
+     * the version of this graph the shortest path trees belong to
+     */
+    private long treeVersion;
+    /**
+     * bridges of this graph, null if the index has to be created again;
+     * unlike the other caches, the index is updated when a pendant town is
+     * added or removed
+     */
+    private BridgeIndex bridgeIndex;
+    /**
+     * number of modifications of this graph; results calculated for an older
+     * version must not be used anymore
+     */
+    private long version;
+
+    /**
+     * This creates a new graph object with empty lists of towns and paths.
+     */
+    public Graph() {
+        towns = new ArrayList<Town>();
+        paths = new ArrayList<Path>();
+        townIndex = new HashMap<String, Town>();
+        pathIndex = new HashMap<Long, Path>();
+        townsById = new ArrayList<Town>();
+        freeIds = new ArrayList<Integer>();
+        snapshot = null;
+        hierarchies = new HashMap<Criterion, ContractionHierarchy>();
+        landmarkIndexes = new HashMap<Criterion, LandmarkIndex>();
+        shortestPathTrees = new LinkedHashMap<String, ShortestPathTree>(16, 0.75f, true) {
+            /**
+             * for serialization
+             */
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ShortestPathTree> pEldest) {
+                // drop the tree that has not been used for the longest time
+                return size() > MAX_SHORTEST_PATH_TREES;
+            }
+        };
+    }
+
+    /**
+     * This method adds a town to the list of towns.
+     * 
+     * @param pTown
+     *            town that is going to be added
+     */
+    public void addTown(Town pTown) {
+        towns.add(pTown);
+        townIndex.put(pTown.getName(), pTown);
+        // give the town an id, reuse ids of removed towns
+        if (freeIds.isEmpty()) {
+            pTown.setId(townsById.size());
+            townsById.add(pTown);
+        } else {
+            pTown.setId(freeIds.remove(freeIds.size() - 1));
+            townsById.set(pTown.getId(), pTown);
+        }
+        graphModified();
+    }
+
+    /**
+     * This method adds the towns and paths of a snapshot file to this graph,
+     * which has to be empty. Unlike addTown and addPath, the indexes are
+     * created in one pass and the snapshot is not created again out of the
+     * towns, so the ids of the towns have to be their positions in pTowns.
+     *
+     * @param pTowns
+     *            the towns, in the order of their ids
+     * @param pPaths
+     *            the paths, in the order in which they are stored
+     * @param pSnapshot
+     *            the snapshot of the towns and paths
+     * @throws IllegalInputException
+     *             if two paths connect the same towns
+     */
+    void load(Town[] pTowns, Path[] pPaths, GraphSnapshot pSnapshot) throws IllegalInputException {
+        // the indexes do not have to grow while they are filled
+        townIndex = new HashMap<String, Town>(2 * pTowns.length);
+        pathIndex = new HashMap<Long, Path>(2 * pPaths.length);
+        towns.ensureCapacity(pTowns.length);
+        townsById.ensureCapacity(pTowns.length);
+        paths.ensureCapacity(pPaths.length);
+        for (Town town : pTowns) {
+            town.setId(townsById.size());
+            towns.add(town);
+            townsById.add(town);
+            townIndex.put(town.getName(), town);
+        }
+        for (Path path : pPaths) {
+            if (pathIndex.put(pathKey(path.getStart(), path.getDestination()), path) != null) {
+                throw new IllegalInputException("Error, a path between " + path.getStart().getName() + " and "
+                        + path.getDestination().getName() + " already exists.");
+            }
+            paths.add(path);
+            path.getStart().addNeighbor(path.getDestination());
+            path.getDestination().addNeighbor(path.getStart());
+        }
+        graphModified();
+        dropHierarchies();
+        snapshot = pSnapshot;
+    }
+
+    /**
+     * This method adds a path to the list of paths.
+     * 
+     * @param pPath
+     *            path that is going to be added.
+     * @throws IllegalInputException
+     *             if path already exists in this graph
+     */
+    public void addPath(Path pPath) throws IllegalInputException {
+        // only add path if it does not already exist
+        // in case a path is added, for both the start and destination a new
+        // neighbor has to be added
+        Town start = contained(pPath.getStart());
+        Town destination = contained(pPath.getDestination());
+        if (start == null || destination == null || pathIndex.get(pathKey(start, destination)) == null) {
+            paths.add(pPath);
+            if (start != null && destination != null) {
+                pathIndex.put(pathKey(start, destination), pPath);
+            }
+            graphModified();
+            updateHierarchies(pPath, start, destination);
+            updateBridgeIndex(pPath, start, destination);
+            // adding destination to the start's neighbors
+            if (start != null) {
+                start.addNeighbor(destination != null ? destination : pPath.getDestination());
+            }
+            // adding start to the destination's neighbors
+            if (destination != null) {
+                destination.addNeighbor(start != null ? start : pPath.getStart());
+            }
+        } else {
+            throw new IllegalInputException("Error, a path between " + pPath.getStart().getName() + " and "
+                    + pPath.getDestination().getName() + " already exists.");
+        }
+    }
+
+    /**
+     * This method removes a town from this graph's list of towns
+     * 
+     * @param pTown
+     *            town that is going to be removed
+     */
+    private void removeTown(Town pTown) {
+        towns.remove(pTown);
+        townIndex.remove(pTown.getName());
+        townsById.set(pTown.getId(), null);
+        freeIds.add(pTown.getId());
+        graphModified();
+        dropHierarchies();
+    }
+
+    /**
+     * This method removes a path from this graph, but only in case the graph is
+     * still related afterwards. If the graph would not be related anymore
+     * afterwards, the edge is not being removed. Whether the graph stays
+     * related is looked up in the bridge index instead of searching routes to
+     * all towns.
+     * 
+     * @param pPath
+     *            path that is supposed to be removed
+     * @throws IllegalInputException
+     *             in case the graph would not be related anymore after removing
+     *             the path. in this case, the path is not removed
+     * @throws ObjectNotFoundException
+     *             if graph does not contain the path (pPath) or if path is null
+     */
+    public void removePath(Path pPath) throws IllegalInputException, ObjectNotFoundException {
+        // check: valid parameter?
+        if (pPath == null || findPath(pPath.getStart(), pPath.getDestination()) != pPath) {
+            throw new ObjectNotFoundException("Error, this path does not exist.");
+        } else {
+            /*
+             * a town without any neighbors after removing the path is deleted
+             * as well, so only a bridge between two towns that keep other
+             * neighbors disconnects the graph
+             */
+            boolean deleteStart = pPath.getStart().getNeighbors().size() == 1;
+            boolean deleteDestination = pPath.getDestination().getNeighbors().size() == 1;
+            if (getBridgeIndex().isBridge(pPath) && !deleteStart && !deleteDestination) {
+                /*
+                 * a path that has not been removed is stored again, so it
+                 * moves to the end of the paths (and of the neighbors with the
+                 * same hash code) as it always has; the towns and paths stay
+                 * the same, so only the order of the snapshot is outdated
+                 */
+                paths.remove(pPath);
+                paths.add(pPath);
+                pPath.getStart().getNeighbors().remove(pPath.getDestination());
+                pPath.getDestination().getNeighbors().remove(pPath.getStart());
+                pPath.getStart().addNeighbor(pPath.getDestination());
+                pPath.getDestination().addNeighbor(pPath.getStart());
+                orderModified();
+                throw new IllegalInputException(
+                        "Error, graph would not be connected anymore. Edge between " + pPath.getStart().getName()
+                                + " and " + pPath.getDestination().getName() + " has not been removed.");
+            }
+            // removing start town from hashmap of neighbors of destination town
+            pPath.getStart().getNeighbors().remove(pPath.getDestination());
+            // removing destination town from hashmap of neighbors of start town
+            pPath.getDestination().getNeighbors().remove(pPath.getStart());
+            paths.remove(pPath);
+            pathIndex.remove(pathKey(pPath.getStart(), pPath.getDestination()));
+            graphModified();
+            // witnesses of the hierarchies may have used the path
+            dropHierarchies();
+
+            if (deleteStart) {
+                // if a town does not have any neighbors after removing the
+                // path, the town itself is being deleted
+                removeTown(pPath.getStart());
+            }
+            if (deleteDestination) {
+                // town has no neighbors after removing path; remove town
+                removeTown(pPath.getDestination());
+            }
+            // update the bridges
+            if (deleteStart != deleteDestination) {
+                bridgeIndex.pendantRemoved(pPath);
+            } else {
+                // other paths may have become bridges
+                bridgeIndex = null;
+            }
+        }
+
+    }
+
+    /**
+     * This method tells the contraction hierarchies about a new path, so that
+     * they are repaired instead of being created again the next time they are
+     * needed. A path whose towns are not stored in this graph cannot be
+     * repaired.
+     *
+     * @param pPath
+     *            the new path
+     * @param pStart
+     *            start town of the path (as stored in this graph)
+     * @param pDestination
+     *            destination town of the path (as stored in this graph)
+     */
+    private synchronized void updateHierarchies(Path pPath, Town pStart, Town pDestination) {
+        if (pStart == null || pDestination == null) {
+            hierarchies.clear();
+            return;
+        }
+        for (ContractionHierarchy hierarchy : hierarchies.values()) {
+            hierarchy.pathAdded(pStart.getId(), pDestination.getId(), pPath);
+        }
+    }
+
+    /**
+     * This method drops the contraction hierarchies after a modification they
+     * cannot be repaired after; they are created again when they are needed.
+     */
+    private synchronized void dropHierarchies() {
+        hierarchies.clear();
+    }
+
+    /**
+     * This method updates the index of bridges after a path has been added.
+     * If one of the towns has no other neighbors, only this path is a new
+     * bridge; otherwise, the index has to be created again.
+     *
+     * @param pPath
+     *            the new path
+     * @param pStart
+     *            start town of the path (as stored in this graph)
+     * @param pDestination
+     *            destination town of the path (as stored in this graph)
+     */
+    private void updateBridgeIndex(Path pPath, Town pStart, Town pDestination) {
+        if (bridgeIndex == null) {
+            return;
+        }
+        if (pStart != null && pDestination != null
+                && (pDestination.getNeighbors().isEmpty() || pStart.getNeighbors().isEmpty())) {
+            bridgeIndex.pendantAdded(pPath);
+        } else {
+            // the new path may close a circle --> some bridges may not be
+            // bridges anymore
+            bridgeIndex = null;
+        }
+    }
+
+    /**
+     * This method checks whether this graph is connected. The towns are
+     * merged along the paths in a union-find structure, which needs almost
+     * linear time.
+     * 
+     * @return true if graph is related, false if graph is not connected
+     */
+    public boolean checkConnected() {
+        // each path merges the components of its towns
+        return new ConnectivityValidator(this).isConnected();
+    }
+
+    /**
+     * This method finds a path in this graph between two certain towns.
+     * 
+     * @param pStart
+     *            the town where the paths starts or ends
+     * @param pDestination
+     *            the other town where the path starts or ends
+     * @return the path between pStart (town of start) and pDestination (town of
+     *         destination)
+     */
+    public Path findPath(Town pStart, Town pDestination) {
+        Town start = pStart == null ? null : contained(pStart);
+        Town destination = pDestination == null ? null : contained(pDestination);
+        if (start == null || destination == null) {
+            // path not found
+            return null;
+        }
+        return pathIndex.get(pathKey(start, destination));
+    }
+
+    /**
+     * This method finds the town of this graph equal to a town. Usually, the
+     * town itself is part of this graph, which is checked by its id without
+     * looking at its name.
+     * 
+     * @param pTown
+     *            the town
+     * @return the town with the same name in this graph, null if there is none
+     */
+    private Town contained(Town pTown) {
+        int id = pTown.getId();
+        if (id >= 0 && id < townsById.size() && townsById.get(id) == pTown) {
+            return pTown;
+        }
+        return findTown(pTown.getName());
+    }
+
+    /**
+     * This method creates the key of a path in the index of paths. Undirected
+     * graph: destination and start might be switched, so the key is always
+     * created out of the smaller id first.
+     * 
+     * @param pStart
+     *            the town where the path starts or ends (part of this graph)
+     * @param pDestination
+     *            the other town where the path starts or ends (part of this
+     *            graph)
+     * @return the key of the path between both towns
+     */
+    private Long pathKey(Town pStart, Town pDestination) {
+        int first = Math.min(pStart.getId(), pDestination.getId());
+        int second = Math.max(pStart.getId(), pDestination.getId());
+        /*
+         * multiplying with an odd number keeps the keys different, but spreads
+         * them over all bits (Long.hashCode only combines both halves)
+         */
+        return (((long) first << 32) | second) * 0x9E3779B97F4A7C15L;
+    }
+
+    /**
+     * This method checks whether this graph contains a certain town.
+     * 
+     * @param pTown
+     *            town that is being searched for
+     * @return true if this graph contains the town, false if not or if pTown
+     *         is null
+     */
+    public boolean containsTown(Town pTown) {
+        return pTown != null && townIndex.containsKey(pTown.getName());
+    }
+
+    /**
+     * This method finds a town in this graph by its name.
+     * 
+     * @param pName
+     *            name of the town that is being searched for
+     * @return the town with the given name (pName)
+     */
+    public Town findTown(String pName) {
+        if (pName == null) {
+            // town not found
+            return null;
+        }
+        // ignore capital letters
+        return townIndex.get(pName.toLowerCase());
+    }
+
+    /**
+     * This prints the graph in serialized form. This means: In the first part,
+     * the towns are listed (one town per line).<br>
+     * In the second part, all paths are listed (in following syntax:
+     * nameOfStart;nameOfDestination;length;neededTime).<br>
+     * Both parts are divided by '--'.
+     */
+    public void print() {
+        // in case of an empty graph, only print an empty line
+        if (towns.size() == 0) {
+            Terminal.printLine("");
+        } else {
+            // vertices
+            printTowns();
+            // separating line
+            Terminal.printLine("--");
+            // edges
+            for (Path path : paths) {
+                Terminal.printLine(path.getStart().getName() + ";" + path.getDestination().getName() + ";"
+                        + path.getLength() + ";" + path.getTime());
+            }
+        }
+    }
+
+    /**
+     * This method prints all towns (name of each town in its own line).
+     */
+    public void printTowns() {
+        if (towns.size() > 0)
+            for (Town town : towns) {
+                Terminal.printLine(town.getName());
+            }
+        else {
+            Terminal.printLine("");
+        }
+    }
+
+    /**
+     * This method prints all the neighbors of a town (name of each neighbor in
+     * its own line).
+     * 
+     * @param pTown
+     *            town whose neighbors are being printed
+     * @throws ObjectNotFoundException
+     *             in case this graph does not contain pTown or if pTown is null
+     */
+    public void printNeighbors(Town pTown) throws ObjectNotFoundException {
+        // check: valid parameter?
+        if (containsTown(pTown)) {
+            for (Town town : pTown.getNeighbors().values()) {
+                Terminal.printLine(town.getName());
+            }
+        } else {
+            // town not found or town is null
+            throw new ObjectNotFoundException("Error, this town does not exist.");
+        }
+    }
+
+    /**
+     * This method returns a compact, unmodifiable copy of this graph. The copy
+     * is only created again if the graph has been modified since the last
+     * invocation.
+     * 
+     * @return the current snapshot of this graph
+     */
+    public synchronized GraphSnapshot getSnapshot() {
+        if (snapshot == null) {
+            snapshot = new GraphSnapshot(this);
+        }
+        return snapshot;
+    }
+
+    /**
+     * This method is invoked every time this graph is modified, so that
+     * copies of the old graph are not used anymore. The contraction
+     * hierarchies are repaired or dropped by the modifying methods.
+     */
+    private synchronized void graphModified() {
+        version++;
+        snapshot = null;
+        landmarkIndexes.clear();
+        blockCutTree = null;
+    }
+
+    /**
+     * This method is invoked when the order of the paths has changed, but not
+     * the towns and paths themselves. The snapshot is created again in the
+     * new order; the version, the indexes and the hierarchies only depend on
+     * the towns and paths, so they stay valid.
+     */
+    private synchronized void orderModified() {
+        snapshot = null;
+    }
+
+    /**
+     * This method returns the version of this graph. The version changes every
+     * time the graph is modified.
+     * 
+     * @return the number of modifications of this graph
+     */
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * This method returns the contraction hierarchy of this graph for a
+     * certain criterion. The hierarchy is only created again if a path has
+     * been removed since the last invocation; after paths have been added, it
+     * is repaired.
+     * 
+     * @param pCriterion
+     *            the criterion (time or route)
+     * @return the contraction hierarchy for the criterion
+     * @throws IllegalInputException
+     *             if the criterion is invalid (e.g. all or optimal)
+     */
+    public synchronized ContractionHierarchy getContractionHierarchy(Criterion pCriterion)
+            throws IllegalInputException {
+        ContractionHierarchy hierarchy = hierarchies.get(pCriterion);
+        if (hierarchy == null) {
+            hierarchy = new ContractionHierarchy(getSnapshot(), pCriterion);
+            hierarchies.put(pCriterion, hierarchy);
+        } else if (hierarchy.getSnapshot() != getSnapshot()) {
+            hierarchy.update(getSnapshot());
+        }
+        return hierarchy;
+    }
+
+    /**
+     * This method returns the landmark index of this graph for a certain
+     * criterion. The index is only created again if the graph has been
+     * modified since the last invocation.
+     * 
+     * @param pCriterion
+     *            the criterion (time or route)
+     * @return the landmark index for the criterion
+     * @throws IllegalInputException
+     *             if the criterion is invalid (e.g. all or optimal)
+     */
+    public synchronized LandmarkIndex getLandmarkIndex(Criterion pCriterion) throws IllegalInputException {
+        LandmarkIndex index = landmarkIndexes.get(pCriterion);
+        if (index == null) {
+            index = new LandmarkIndex(getSnapshot(), pCriterion);
+            landmarkIndexes.put(pCriterion, index);
+        }
+        return index;
+    }
+
+    /**
+     * This method returns the search of the Dijkstra Algorithm from a town.
+     * The search is kept until the version of this graph changes, so further
+     * routes from the same town continue the search instead of starting a
+     * new one.
+     * 
+     * @param pStart
+     *            the starting town (as stored in this graph)
+     * @param pCriterion
+     *            route or time
+     * @return the shortest path tree of the town
+     * @throws IllegalInputException
+     *             if the criterion is invalid
+     */
+    public synchronized ShortestPathTree getShortestPathTree(Town pStart, Criterion pCriterion)
+            throws IllegalInputException {
+        if (treeVersion != version) {
+            // the trees belong to an older version of this graph
+            shortestPathTrees.clear();
+            treeVersion = version;
+        }
+        String key = pCriterion + ";" + pStart.getId();
+        ShortestPathTree tree = shortestPathTrees.get(key);
+        if (tree == null) {
+            tree = new ShortestPathTree(getSnapshot(), pStart.getId(), pCriterion);
+            shortestPathTrees.put(key, tree);
+        }
+        return tree;
+    }
+
+    /**
+     * This method returns the index of the bridges of this graph. The index
+     * is created the first time it is needed and again after the graph has
+     * been modified in a way the index cannot be updated.
+     *
+     * @return the bridge index
+     */
+    public synchronized BridgeIndex getBridgeIndex() {
+        if (bridgeIndex == null) {
+            bridgeIndex = new BridgeIndex(this, getSnapshot());
+        }
+        return bridgeIndex;
+    }
+
+    /**
+     * This method returns the block-cut tree of the current state of this
+     * graph. The tree is created the first time it is needed and again after
+     * the graph has been modified.
+     *
+     * @return the block-cut tree
+     */
+    public synchronized BlockCutTree getBlockCutTree() {
+        if (blockCutTree == null) {
+            blockCutTree = new BlockCutTree(getSnapshot());
+        }
+        return blockCutTree;
+    }
+
+    /**
+     * This method returns the town with a certain id.
+     * 
+     * @param pId
+     *            the id of the town
+     * @return the town with the given id, null if there is no such town
+     */
+    public Town getTownById(int pId) {
+        return townsById.get(pId);
+    }
+
+    /**
+     * This method returns the number of ids that are currently available. All
+     * ids of the towns of this graph are smaller than this number, so it can
+     * be used as the size of arrays indexed by the id of a town.
+     * 
+     * @return the upper bound (exclusive) of all town ids of this graph
+     */
+    public int getIdCapacity() {
+        return townsById.size();
+    }
+
+    /**
+     * This method returns the list of towns of this graph.
+     * 
+     * @return the vertices (= list of towns) of this graph
+     */
+    public ArrayList<Town> getTowns() {
+        return towns;
+    }
+
+    /**
+     * This method returns the list of paths of this graph.
+     * 
+     * @return the edges (= list of paths) of this graph
+     */
+    public ArrayList<Path> getPaths() {
+        return paths;
+    }
+
+}
@@ -1,204 +1,709 @@
-package edu.kit.informatik.graphProcessing;
-
-import java.util.HashSet;
-
-import edu.kit.informatik.Terminal;
-import edu.kit.informatik.userInterface.IllegalInputException;
-
-/**
- * This class creates an undirected, connected graph out of a serialized *.txt
- * file. The file should be in this form: <br>
- * First part: Name of each town in one line (each town represents a vertex),
- * then two hyphens in one line to mark end of first part. Second part: All the
- * paths (representing edges of the graph) are listed, each path in one separate
- * line. Expected syntax: nameOfTown1;nameOfTown2;lengthOfPath;timeNeededOnPath
- * Length and time have to be Integer numbers greater than zero.
- * 
- * @author Johanna Thiemich
- * @version 1.0
- *
- */
-public class GraphBuilder {
-    /**
-     * saving already added towns to avoid duplicates
-     */
-    private HashSet<String> addedTowns;
-    /**
-     * lines extracted out of the file
-     */
-    private String[] lines;
-    /**
-     * path to file that is being parsed
-     */
-    private String file;
-    /**
-     * graph that is being built
-     */
-    private Graph graph;
-
-    /**
-     * This creates a new graph out of a *.txt file.
-     * 
-     * @param pFile
-     *            path of the *.txt file
-     */
-    public GraphBuilder(String pFile) {
-        addedTowns = new HashSet<String>();
-        file = pFile;
-        graph = new Graph();
-        lines = new String[0];
-    }
-
-    /**
-     * This method returns the finished graph.
-     * 
-     * @return finished graph
-     * @throws IncorrectInputFileException
-     *             if finished graph is not connected
-     */
-    public Graph finishedGraph() throws IncorrectInputFileException {
-        handleFile();
-        if (graph.checkConnected()) {
-            return graph;
-        } else {
-            throw new IncorrectInputFileException("Error, this graph is not connected.");
-        }
-    }
-
-    /**
-     * This method does the main tasks of creating the graph.
-     */
-    private void handleFile() {
-        this.lines = FileInputHelper.read(this.file);
-        int endOfFirstPart = -1; // first part contains the towns
-        int startOfSecondPart = -1; // second part contains the paths
-        for (int i = 0; i < lines.length; i++) {
-            if (lines[i].equals("--")) {
-                // finding end of first part and start of second part
-                endOfFirstPart = i - 1;
-                startOfSecondPart = i + 1;
-            }
-        }
-        // at least two towns have to be provided
-        if (endOfFirstPart >= 1) {
-            try {
-                createTowns(endOfFirstPart);
-            } catch (IncorrectInputFileException e) {
-                Terminal.printLine(e.getMessage());
-                System.exit(1);
-            }
-        } else {
-            Terminal.printLine("Error, at least two towns (first part of file) have to be provided, "
-                    + "but you provided less than two.");
-            System.exit(1);
-        }
-        // at least one path has to be provided
-        if ((lines.length - startOfSecondPart) >= 1) {
-            try {
-                createPaths(startOfSecondPart);
-            } catch (IncorrectInputFileException e) {
-                Terminal.printLine(e.getMessage());
-                System.exit(1);
-            } catch (NumberFormatException e) {
-                Terminal.printLine(e.getMessage());
-                System.exit(1);
-            }
-        } else {
-            Terminal.printLine(
-                    "Error, at least one path (second part of file) has to be provided, but you provided none.");
-            System.exit(1);
-        }
-    }
-
-    /**
-     * This method creates the towns out of the first part of the file.
-     * 
-     * @param endOfFirstPart
-     *            the amount of lines containing names of towns
-     * @throws IncorrectInputFileException
-     *             if first part of file contains mistakes (e.g. duplicate
-     *             towns, name of town does not match [A-Za-z-]+)
-     */
-    private void createTowns(int endOfFirstPart) throws IncorrectInputFileException {
-        addedTowns = new HashSet<String>();
-        for (int i = 0; i <= endOfFirstPart; i++) {
-            if (lines[i].matches("[A-Za-z-]+")) {
-                // only add town if it does not already exist
-                if (!addedTowns.contains(lines[i].toLowerCase())) {
-                    graph.addTown(new Town(lines[i].toLowerCase()));
-                    addedTowns.add(lines[i].toLowerCase());
-                } else {
-                    throw new IncorrectInputFileException("Error, duplicate towns are not allowed.");
-                }
-            } else {
-                throw new IncorrectInputFileException(
-                        "Error, name of town must only contain letters A-Z, a-z or a hyphen.");
-            }
-        }
-    }
-
-    /**
-     * This method creates the paths out of the second part of the file.
-     * 
-     * @param startOfSecondPart
-     *            the number of the line, marking the start of the second part
-     *            of the file
-     * @throws IncorrectInputFileException
-     *             if second part of file contains mistakes (e.g. duplicate
-     *             paths, towns do not exist, path from one town to itself)
-     * @throws NumberFormatException
-     *             if given Strings containing information about length and time
-     *             of the path cannot be parsed to Integers
-     */
-    private void createPaths(int startOfSecondPart) throws IncorrectInputFileException, NumberFormatException {
-
-        for (int i = startOfSecondPart; i < lines.length; i++) {
-            if (lines[i].split(";").length == 4 && lines[i].charAt(lines[i].length() - 1) != ';') {
-                String[] commands = lines[i].split(";");
-                /*
-                 * not using graph method findTown() to check whether town
-                 * already exists since HashMap is working more efficiently
-                 */
-                if (addedTowns.contains(commands[0].toLowerCase()) && addedTowns.contains(commands[1].toLowerCase())) {
-                    // path from one town to itself not allowed
-                    if (!commands[0].equalsIgnoreCase(commands[1])) {
-                        Integer distance = -1;
-                        Integer time = -1;
-                        try {
-                            distance = Integer.parseInt(commands[2]);
-                            time = Integer.parseInt(commands[3]);
-                        } catch (NumberFormatException e) {
-                            // parsing of strings not possible
-                            throw new NumberFormatException(
-                                    "Error, " + commands[2] + " and " + commands[3] + " are not valid integers.");
-                        }
-                        if (distance > 0 && time > 0) {
-                            if (graph.findPath(graph.findTown(commands[0]), graph.findTown(commands[1])) == null) {
-                                // all parameters have been entered
-                                // correctly --> add path
-                                try {
-                                    graph.addPath(new Path(graph.findTown(commands[0]), graph.findTown(commands[1]),
-                                            distance, time));
-                                } catch (IllegalInputException e) {
-                                    throw new IncorrectInputFileException(e.getMessage());
-                                }
-                            } else {
-                                throw new IncorrectInputFileException("Error, duplicate paths are not allowed.");
-                            }
-                        } else
-                            throw new IncorrectInputFileException(
-                                    "Error, " + commands[2] + " and " + commands[3] + " are not valid integers.");
-                    } else {
-                        throw new IncorrectInputFileException("Error, path from one town to itself is not allowed.");
-                    }
-                } else {
-                    throw new IncorrectInputFileException("Error, both towns have to be listed in first part of "
-                            + "file in order to create a path between the two of them.");
-                }
-            } else {
-                throw new IncorrectInputFileException("Error, in part two of the file you need to provide exactly"
-                        + " 4 semicolon-separated parameters,\nbut the number of parameters did not match this.");
-            }
-        }
-    }
-}
+package edu.kit.informatik.graphProcessing;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+import edu.kit.informatik.Terminal;
+import edu.kit.informatik.userInterface.IllegalInputException;
+
+/**
+ * This class creates an undirected, connected graph out of a serialized *.txt
+ * file. The file should be in this form: <br>
+ * First part: Name of each town in one line (each town represents a vertex),
+ * then two hyphens in one line to mark end of first part. Second part: All the
+ * paths (representing edges of the graph) are listed, each path in one separate
+ * line. Expected syntax: nameOfTown1;nameOfTown2;lengthOfPath;timeNeededOnPath
+ * Length and time have to be Integer numbers greater than zero.<br>
+ * The file is read as bytes line by line (see ByteLineReader) and each line is
+ * checked without creating strings or regular expressions. The messages for
+ * incorrect files are the same as if the file had been split into lines of
+ * text.<br>
+ * The lines of the paths do not depend on each other once the towns are
+ * known, so a large second part is split into ranges of lines that are parsed
+ * and checked in parallel. The paths are added to the graph in the order of
+ * the file, and the first mistake in the file is reported, just like when the
+ * file is read line by line.
+ * 
+ * @author Johanna Thiemich
+ * @version 1.0
+ *
+ */
+public class GraphBuilder {
+    /**
+     * maximal number of towns listed for each component if the graph is not
+     * connected
+     */
+    private static final int MAX_LISTED_TOWNS = 10;
+    /**
+     * size of the second part of the file (in bytes) from which on it is
+     * parsed in parallel
+     */
+    private static final long PARALLEL_SIZE = 1 << 22;
+    /**
+     * number of ranges of the second part for each thread of the pool, so
+     * that threads finishing early can take over more ranges
+     */
+    private static final int RANGES_PER_THREAD = 4;
+    /**
+     * number of ints stored for each parsed path (ids of both towns, length,
+     * time)
+     */
+    private static final int FIELDS = 4;
+
+    /**
+     * the towns that have been added, found by the bytes of their names; used
+     * to avoid duplicates as well
+     */
+    private TownNameIndex townNames;
+    /**
+     * path to file that is being parsed
+     */
+    private String file;
+    /**
+     * graph that is being built
+     */
+    private Graph graph;
+    /**
+     * merges the towns along the paths while they are created
+     */
+    private ConnectivityValidator validator;
+    /**
+     * the pool that parses the second part of the file in parallel
+     */
+    private ForkJoinPool pool;
+
+    /**
+     * This creates a new graph out of a *.txt file.
+     * 
+     * @param pFile
+     *            path of the *.txt file
+     */
+    public GraphBuilder(String pFile) {
+        file = pFile;
+        graph = new Graph();
+        townNames = new TownNameIndex();
+        pool = ForkJoinPool.commonPool();
+    }
+
+    /**
+     * This method returns the finished graph.
+     * 
+     * @return finished graph
+     * @throws IncorrectInputFileException
+     *             if finished graph is not connected; the message lists the
+     *             towns of each component
+     */
+    public Graph finishedGraph() throws IncorrectInputFileException {
+        handleFile();
+        if (validator.isConnected()) {
+            return graph;
+        } else {
+            throw notConnected(validator, graph);
+        }
+    }
+
+    /**
+     * This method creates the exception for a graph that is not connected.
+     * 
+     * @param pValidator
+     *            validator containing all towns and paths of the graph
+     * @param pGraph
+     *            the graph
+     * @return the exception; the message lists the towns of each component
+     */
+    static IncorrectInputFileException notConnected(ConnectivityValidator pValidator, Graph pGraph) {
+        StringBuilder output = new StringBuilder("Error, this graph is not connected. It consists of "
+                + pValidator.getComponentCount() + " components:");
+        for (ArrayList<Town> component : pValidator.getComponents(pGraph)) {
+            output.append("\n");
+            for (int i = 0; i < component.size() && i < MAX_LISTED_TOWNS; i++) {
+                output.append(i > 0 ? " " : "").append(component.get(i).getName());
+            }
+            if (component.size() > MAX_LISTED_TOWNS) {
+                output.append(" ... (" + component.size() + " towns)");
+            }
+        }
+        return new IncorrectInputFileException(output.toString());
+    }
+
+    /**
+     * This method does the main tasks of creating the graph. The file is read
+     * once: the towns end at the first line "--", then the paths are created.
+     * Strictly, the towns end at the last line "--" of the file; only if a
+     * mistake is found, the rest of the file is searched for a later line
+     * "--", and if there is one, the file is read again with the towns ending
+     * there. So the same mistake is reported as if the whole file had been
+     * looked at first.
+     */
+    private void handleFile() {
+        long separator = readFile(-1);
+        if (separator >= 0) {
+            // the first line "--" has been the name of a town
+            graph = new Graph();
+            townNames = new TownNameIndex();
+            readFile(separator);
+        }
+    }
+
+    /**
+     * This method reads the file and creates the towns and paths. If the file
+     * contains mistakes, the program is terminated.
+     * 
+     * @param pSeparator
+     *            number of the line separating the towns from the paths, -1 if
+     *            it is the first line "--"
+     * @return -1 if the graph has been created; otherwise the number of the
+     *         last line "--", which separates the towns from the paths
+     *         instead of the first one
+     */
+    private long readFile(long pSeparator) {
+        ByteLineReader reader = open();
+        try {
+            long separator = -1;
+            String mistake = null;
+            try {
+                separator = createTowns(reader, pSeparator);
+            } catch (IncorrectInputFileException e) {
+                mistake = e.getMessage();
+            }
+            if (mistake != null || separator < 2) {
+                long last = pSeparator >= 0 ? pSeparator : findLastSeparator(reader, separator);
+                if (mistake == null && last != separator) {
+                    return last;
+                }
+                // at least two towns have to be provided
+                exit(last >= 2 ? mistake : "Error, at least two towns (first part of file) have to be provided, "
+                        + "but you provided less than two.");
+            }
+            int pathCount = 0;
+            try {
+                if (reader.nextLine()) {
+                    long begin = reader.getLineOffset();
+                    long end = new File(file).length();
+                    if (pool.getParallelism() > 1 && end - begin >= PARALLEL_SIZE) {
+                        pathCount = createPathsInParallel(begin, end);
+                    } else {
+                        pathCount = createPaths(reader);
+                    }
+                }
+            } catch (IncorrectInputFileException e) {
+                mistake = e.getMessage();
+            } catch (NumberFormatException e) {
+                mistake = e.getMessage();
+            }
+            if (mistake != null) {
+                if (pSeparator < 0) {
+                    // the mistake may belong to the towns of a later line "--"
+                    long last = findLastSeparator(reader, reader.isSeparator() ? reader.getLineNumber() : -1);
+                    if (last >= 0) {
+                        return last;
+                    }
+                }
+                exit(mistake);
+            }
+            // at least one path has to be provided (empty lines at the end do
+            // not count)
+            if (pathCount == 0) {
+                exit("Error, at least one path (second part of file) has to be provided, but you provided none.");
+            }
+        } catch (IOException e) {
+            exit("Error, " + e.getMessage());
+        } finally {
+            close(reader);
+        }
+        return -1;
+    }
+
+    /**
+     * This method reads the rest of the file and finds the last line "--".
+     * 
+     * @param pReader
+     *            reader of the file
+     * @param pLast
+     *            number of the last line "--" found so far, -1 if there is none
+     * @return number of the last line "--", pLast if there is none behind the
+     *         current line
+     * @throws IOException
+     *             if the file cannot be read
+     */
+    private static long findLastSeparator(ByteLineReader pReader, long pLast) throws IOException {
+        long last = pLast;
+        while (pReader.nextLine()) {
+            if (pReader.isSeparator()) {
+                last = pReader.getLineNumber();
+            }
+        }
+        return last;
+    }
+
+    /**
+     * This method prints the message of a mistake and terminates the program.
+     * 
+     * @param pMessage
+     *            the message
+     */
+    private static void exit(String pMessage) {
+        Terminal.printLine(pMessage);
+        Terminal.flush();
+        System.exit(1);
+    }
+
+    /**
+     * This method opens the file. If it cannot be opened, the program is
+     * terminated.
+     * 
+     * @return a reader of the file
+     */
+    private ByteLineReader open() {
+        try {
+            return new ByteLineReader(file);
+        } catch (FileNotFoundException e) {
+            exit("Error, " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * This method closes a reader of the file.
+     * 
+     * @param pReader
+     *            the reader
+     */
+    private void close(ByteLineReader pReader) {
+        try {
+            pReader.close();
+        } catch (IOException e) {
+            // no need for handling this exception
+        }
+    }
+
+    /**
+     * This method creates the towns out of the first part of the file.
+     * 
+     * @param pReader
+     *            reader of the file, positioned before the first line
+     * @param pSeparator
+     *            number of the line separating the towns from the paths, -1 if
+     *            the towns end at the first line "--"
+     * @return number of the line separating the towns from the paths, the
+     *         reader is positioned at this line; -1 if the file ends before
+     * @throws IncorrectInputFileException
+     *             if first part of file contains mistakes (e.g. duplicate
+     *             towns, name of town does not match [A-Za-z-]+)
+     * @throws IOException
+     *             if the file cannot be read
+     */
+    private long createTowns(ByteLineReader pReader, long pSeparator) throws IncorrectInputFileException, IOException {
+        long separator = -1;
+        while (pReader.nextLine()) {
+            if (pSeparator < 0 ? pReader.isSeparator() : pReader.getLineNumber() == pSeparator) {
+                separator = pReader.getLineNumber();
+                break;
+            }
+            byte[] bytes = pReader.getBuffer();
+            int start = pReader.getLineStart();
+            int end = pReader.getLineEnd();
+            if (!isName(bytes, start, end)) {
+                throw new IncorrectInputFileException(
+                        "Error, name of town must only contain letters A-Z, a-z or a hyphen.");
+            }
+            // only add town if it does not already exist
+            if (townNames.find(bytes, start, end) == null) {
+                Town town = new Town(TownNameIndex.toLowerCase(bytes, start, end));
+                graph.addTown(town);
+                townNames.add(town);
+            } else {
+                throw new IncorrectInputFileException("Error, duplicate towns are not allowed.");
+            }
+        }
+        // each town is a component of its own until paths are added
+        validator = new ConnectivityValidator(graph.getIdCapacity());
+        for (Town town : graph.getTowns()) {
+            validator.addTown(town.getId());
+        }
+        return separator;
+    }
+
+    /**
+     * This method checks whether some bytes form a valid name of a town
+     * ([A-Za-z-]+).
+     * 
+     * @param pBytes
+     *            the buffer
+     * @param pStart
+     *            position of the first byte
+     * @param pEnd
+     *            position after the last byte
+     * @return true if the name is valid
+     */
+    private static boolean isName(byte[] pBytes, int pStart, int pEnd) {
+        if (pStart == pEnd) {
+            return false;
+        }
+        for (int i = pStart; i < pEnd; i++) {
+            byte current = pBytes[i];
+            if (!(current >= 'a' && current <= 'z' || current >= 'A' && current <= 'Z' || current == '-')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * This method creates the paths out of the second part of the file.
+     *
+     * @param pReader
+     *            reader of the file, positioned at the first line of the second
+     *            part
+     * @return the number of paths
+     * @throws IncorrectInputFileException
+     *             if second part of file contains mistakes (e.g. duplicate
+     *             paths, towns do not exist, path from one town to itself)
+     * @throws NumberFormatException
+     *             if given Strings containing information about length and time
+     *             of the path cannot be parsed to Integers
+     * @throws IOException
+     *             if the file cannot be read
+     */
+    private int createPaths(ByteLineReader pReader)
+            throws IncorrectInputFileException, NumberFormatException, IOException {
+        int[] fields = new int[FIELDS];
+        int count = 0;
+        // empty lines are only allowed at the end of the file
+        boolean emptyLine = false;
+        do {
+            if (pReader.isEmptyLine()) {
+                emptyLine = true;
+                continue;
+            }
+            if (emptyLine) {
+                throw wrongParameterCount();
+            }
+            parsePath(pReader.getBuffer(), pReader.getLineStart(), pReader.getLineEnd(), fields, 0);
+            addPath(fields, 0);
+            count++;
+        } while (pReader.nextLine());
+        return count;
+    }
+
+    /**
+     * This method creates the paths out of the second part of the file in
+     * parallel. The second part is split into ranges of lines which are parsed
+     * by the tasks of the pool; the parsed paths of each range are added to
+     * the graph in the order of the ranges as soon as the range is done.
+     *
+     * @param pBegin
+     *            position of the first line of the second part in the file
+     * @param pEnd
+     *            position after the last line of the second part
+     * @return the number of paths
+     * @throws IncorrectInputFileException
+     *             if second part of file contains mistakes (e.g. duplicate
+     *             paths, towns do not exist, path from one town to itself)
+     * @throws NumberFormatException
+     *             if given Strings containing information about length and time
+     *             of the path cannot be parsed to Integers
+     * @throws IOException
+     *             if the file cannot be read
+     */
+    private int createPathsInParallel(long pBegin, long pEnd)
+            throws IncorrectInputFileException, NumberFormatException, IOException {
+        int rangeCount = (int) Math.min((long) RANGES_PER_THREAD * pool.getParallelism(), pEnd - pBegin);
+        ArrayList<ForkJoinTask<PathRange>> tasks = new ArrayList<ForkJoinTask<PathRange>>();
+        for (int i = 0; i < rangeCount; i++) {
+            tasks.add(pool.submit(new PathRange(pBegin + (pEnd - pBegin) * i / rangeCount,
+                    pBegin + (pEnd - pBegin) * (i + 1) / rangeCount, i == 0)));
+        }
+        int count = 0;
+        // true if the ranges before end with empty lines
+        boolean emptyLine = false;
+        try {
+            for (ForkJoinTask<PathRange> task : tasks) {
+                PathRange range = task.join();
+                if (emptyLine && (range.count > 0 || range.error != null)) {
+                    // empty lines are only allowed at the end of the file
+                    throw wrongParameterCount();
+                }
+                emptyLine = range.emptyLine || emptyLine && range.count == 0;
+                count += range.count;
+                for (int i = 0; i < range.count; i++) {
+                    addPath(range.fields, i * FIELDS);
+                }
+                // the mistake is behind all paths of the range that have been
+                // parsed, but before all following ranges
+                if (range.error instanceof NumberFormatException) {
+                    throw (NumberFormatException) range.error;
+                } else if (range.error instanceof IncorrectInputFileException) {
+                    throw (IncorrectInputFileException) range.error;
+                } else if (range.error instanceof IOException) {
+                    throw (IOException) range.error;
+                }
+            }
+        } finally {
+            // ranges behind a mistake are not needed anymore
+            for (ForkJoinTask<PathRange> task : tasks) {
+                task.cancel(false);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * This method parses and checks one line of the second part of the file.
+     * Only the towns found so far are read, so it may be invoked by several
+     * threads at once.
+     *
+     * @param pBytes
+     *            the buffer
+     * @param pStart
+     *            position of the first byte of the line
+     * @param pEnd
+     *            position after the last byte of the line
+     * @param pFields
+     *            receives the ids of both towns, the length and the time of the
+     *            path
+     * @param pIndex
+     *            position in pFields at which the path is stored
+     * @throws IncorrectInputFileException
+     *             if the line contains mistakes (e.g. towns do not exist, path
+     *             from one town to itself)
+     * @throws NumberFormatException
+     *             if given Strings containing information about length and time
+     *             of the path cannot be parsed to Integers
+     */
+    private void parsePath(byte[] pBytes, int pStart, int pEnd, int[] pFields, int pIndex)
+            throws IncorrectInputFileException, NumberFormatException {
+        // positions of the three semicolons of the line
+        int first = -1;
+        int second = -1;
+        int third = -1;
+        int count = 0;
+        for (int i = pStart; i < pEnd && count <= 3; i++) {
+            if (pBytes[i] == ';') {
+                if (count == 0) {
+                    first = i;
+                } else if (count == 1) {
+                    second = i;
+                } else if (count == 2) {
+                    third = i;
+                }
+                count++;
+            }
+        }
+        // exactly 4 parameters, the last one must not be empty
+        if (count != 3 || pBytes[pEnd - 1] == ';') {
+            throw wrongParameterCount();
+        }
+        Town startTown = townNames.find(pBytes, pStart, first);
+        Town destinationTown = townNames.find(pBytes, first + 1, second);
+        if (startTown == null || destinationTown == null) {
+            throw new IncorrectInputFileException("Error, both towns have to be listed in first part of "
+                    + "file in order to create a path between the two of them.");
+        }
+        // path from one town to itself not allowed
+        if (startTown == destinationTown) {
+            throw new IncorrectInputFileException("Error, path from one town to itself is not allowed.");
+        }
+        int distance;
+        int time;
+        try {
+            distance = parseInt(pBytes, second + 1, third);
+            time = parseInt(pBytes, third + 1, pEnd);
+        } catch (NumberFormatException e) {
+            // parsing of strings not possible
+            throw new NumberFormatException("Error, " + new String(pBytes, second + 1, third - second - 1)
+                    + " and " + new String(pBytes, third + 1, pEnd - third - 1) + " are not valid integers.");
+        }
+        if (distance <= 0 || time <= 0) {
+            throw new IncorrectInputFileException("Error, " + new String(pBytes, second + 1, third - second - 1)
+                    + " and " + new String(pBytes, third + 1, pEnd - third - 1) + " are not valid integers.");
+        }
+        pFields[pIndex] = startTown.getId();
+        pFields[pIndex + 1] = destinationTown.getId();
+        pFields[pIndex + 2] = distance;
+        pFields[pIndex + 3] = time;
+    }
+
+    /**
+     * This method creates the exception for a line of the second part of the
+     * file that does not consist of 4 parameters (an empty line, too).
+     *
+     * @return the exception
+     */
+    private static IncorrectInputFileException wrongParameterCount() {
+        return new IncorrectInputFileException("Error, in part two of the file you need to provide exactly"
+                + " 4 semicolon-separated parameters,\nbut the number of parameters did not match this.");
+    }
+
+    /**
+     * This method adds a parsed path to the graph.
+     *
+     * @param pFields
+     *            the parsed paths (see parsePath)
+     * @param pIndex
+     *            position of the path in pFields
+     * @throws IncorrectInputFileException
+     *             if the graph already contains a path between the two towns
+     */
+    private void addPath(int[] pFields, int pIndex) throws IncorrectInputFileException {
+        try {
+            graph.addPath(new Path(graph.getTownById(pFields[pIndex]), graph.getTownById(pFields[pIndex + 1]),
+                    pFields[pIndex + 2], pFields[pIndex + 3]));
+            validator.addPath(pFields[pIndex], pFields[pIndex + 1]);
+        } catch (IllegalInputException e) {
+            // the index of paths of the graph already contains the path
+            throw new IncorrectInputFileException("Error, duplicate paths are not allowed.");
+        }
+    }
+
+    /**
+     * This method parses an Integer out of some bytes, like Integer.parseInt.
+     * 
+     * @param pBytes
+     *            the buffer
+     * @param pStart
+     *            position of the first byte
+     * @param pEnd
+     *            position after the last byte
+     * @return the Integer
+     * @throws NumberFormatException
+     *             if the bytes do not form an Integer
+     */
+    static int parseInt(byte[] pBytes, int pStart, int pEnd) throws NumberFormatException {
+        int i = pStart;
+        boolean negative = false;
+        if (i < pEnd && (pBytes[i] == '-' || pBytes[i] == '+')) {
+            negative = pBytes[i] == '-';
+            i++;
+        }
+        if (i == pEnd) {
+            throw new NumberFormatException();
+        }
+        long value = 0;
+        for (; i < pEnd; i++) {
+            if (pBytes[i] < 0) {
+                // not ASCII: digits of other scripts are allowed as well
+                return Integer.parseInt(new String(pBytes, pStart, pEnd - pStart));
+            }
+            if (pBytes[i] < '0' || pBytes[i] > '9') {
+                throw new NumberFormatException();
+            }
+            value = 10 * value + pBytes[i] - '0';
+            if (value > 1L + Integer.MAX_VALUE) {
+                throw new NumberFormatException();
+            }
+        }
+        if (negative) {
+            value = -value;
+        }
+        if (value > Integer.MAX_VALUE) {
+            throw new NumberFormatException();
+        }
+        return (int) value;
+    }
+
+    /**
+     * This task parses the lines beginning in a range of the second part of
+     * the file. A line belongs to the range in which its first byte lies, so
+     * each task but the first skips the line it starts in.
+     */
+    private class PathRange extends RecursiveTask<PathRange> {
+        /**
+         * for serialization
+         */
+        private static final long serialVersionUID = 1L;
+        /**
+         * position of the first byte of the range in the file
+         */
+        private long begin;
+        /**
+         * position after the last byte of the range in the file
+         */
+        private long end;
+        /**
+         * true if the range begins with a line
+         */
+        private boolean first;
+        /**
+         * the parsed paths, FIELDS ints for each path
+         */
+        private int[] fields;
+        /**
+         * number of parsed paths
+         */
+        private int count;
+        /**
+         * true if the range ends with empty lines, which are only allowed at
+         * the end of the file
+         */
+        private boolean emptyLine;
+        /**
+         * the first mistake of the range, null if there is none
+         */
+        private Exception error;
+
+        /**
+         * This creates a new task.
+         *
+         * @param pBegin
+         *            position of the first byte of the range in the file
+         * @param pEnd
+         *            position after the last byte of the range in the file
+         * @param pFirst
+         *            true if the range begins with a line
+         */
+        PathRange(long pBegin, long pEnd, boolean pFirst) {
+            begin = pBegin;
+            end = pEnd;
+            first = pFirst;
+            fields = new int[FIELDS * 1024];
+        }
+
+        @Override
+        protected PathRange compute() {
+            ByteLineReader reader = null;
+            try {
+                // the byte before the range tells whether a line begins at
+                // the range
+                reader = new ByteLineReader(file, first ? begin : begin - 1);
+                if (!first) {
+                    // rest of the line belonging to the range before
+                    reader.nextLine();
+                }
+                while (reader.nextLine() && reader.getLineOffset() < end) {
+                    if (reader.isEmptyLine()) {
+                        emptyLine = true;
+                        continue;
+                    }
+                    if (emptyLine) {
+                        throw wrongParameterCount();
+                    }
+                    if (fields.length < FIELDS * (count + 1)) {
+                        int[] larger = new int[2 * fields.length];
+                        System.arraycopy(fields, 0, larger, 0, fields.length);
+                        fields = larger;
+                    }
+                    parsePath(reader.getBuffer(), reader.getLineStart(), reader.getLineEnd(), fields,
+                            FIELDS * count);
+                    count++;
+                }
+            } catch (IncorrectInputFileException e) {
+                error = e;
+            } catch (NumberFormatException e) {
+                error = e;
+            } catch (IOException e) {
+                error = e;
+            } finally {
+                if (reader != null) {
+                    close(reader);
+                }
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package edu.kit.informatik.graphProcessing;
+
+import edu.kit.informatik.userInterface.IllegalInputException;
+
+/**
+ * This class represents an unmodifiable, compact copy of a graph (compressed
+ * sparse row format). The towns are represented by their ids. For each town,
+ * the paths leaving the town are stored next to each other in the arrays
+ * targets, lengths and times; offsets tells where the paths of a town start.
+ * <br>
+ * Since the graph is undirected, every path is stored twice (once for each
+ * direction). The paths of town i are found at positions offsets[i] (inclusive)
+ * up to offsets[i + 1] (exclusive).<br>
+ * The arrays returned by the getters are not copied and must not be modified.
+ *
+ * @author Johanna Thiemich
+ * @version 1.0
+ */
+public class GraphSnapshot {
+    /**
+     * for each id: the town with this id (null if the id is not in use)
+     */
+    private Town[] towns;
+    /**
+     * for each id: the position of the first path of the town in the other
+     * arrays; one additional entry at the end
+     */
+    private int[] offsets;
+    /**
+     * for each position: id of the town the path leads to
+     */
+    private int[] targets;
+    /**
+     * for each position: length of the path in kilometers
+     */
+    private int[] lengths;
+    /**
+     * for each position: time of the path in minutes
+     */
+    private int[] times;
+    /**
+     * number of (undirected) paths
+     */
+    private int pathCount;
+
+    /**
+     * This creates a new snapshot of the current state of a graph.
+     *
+     * @param pGraph
+     *            the graph that is copied
+     */
+    public GraphSnapshot(Graph pGraph) {
+        int townCount = pGraph.getIdCapacity();
+        towns = new Town[townCount];
+        for (Town town : pGraph.getTowns()) {
+            towns[town.getId()] = town;
+        }
+        pathCount = pGraph.getPaths().size();
+        // the number of neighbors of each town (degree) gives the positions
+        offsets = new int[townCount + 1];
+        for (int i = 0; i < townCount; i++) {
+            offsets[i + 1] = offsets[i] + (towns[i] == null ? 0 : towns[i].getNeighbors().size());
+        }
+        targets = new int[2 * pathCount];
+        lengths = new int[2 * pathCount];
+        times = new int[2 * pathCount];
+        for (int i = 0; i < townCount; i++) {
+            if (towns[i] != null) {
+                /*
+                 * undirected: each path is added for both of its towns, in the
+                 * same order in which the neighbors of the town are iterated
+                 */
+                int position = offsets[i];
+                for (Town neighbor : towns[i].getNeighbors().values()) {
+                    add(position++, neighbor.getId(), pGraph.findPath(towns[i], neighbor));
+                }
+            }
+        }
+    }
+
+    /**
+     * This creates a snapshot out of arrays that have already been built (see
+     * GraphSnapshotFile). The arrays are not copied.
+     *
+     * @param pTowns
+     *            for each id: the town with this id
+     * @param pOffsets
+     *            for each id: the position of the first path of the town; one
+     *            additional entry at the end
+     * @param pTargets
+     *            for each position: id of the town the path leads to
+     * @param pLengths
+     *            for each position: length of the path
+     * @param pTimes
+     *            for each position: time of the path
+     */
+    GraphSnapshot(Town[] pTowns, int[] pOffsets, int[] pTargets, int[] pLengths, int[] pTimes) {
+        towns = pTowns;
+        offsets = pOffsets;
+        targets = pTargets;
+        lengths = pLengths;
+        times = pTimes;
+        pathCount = pTargets.length / 2;
+    }
+
+    /**
+     * This method stores one direction of a path.
+     *
+     * @param pPosition
+     *            position in the arrays
+     * @param pTarget
+     *            id of the town the path leads to
+     * @param pPath
+     *            the path
+     */
+    private void add(int pPosition, int pTarget, Path pPath) {
+        targets[pPosition] = pTarget;
+        lengths[pPosition] = pPath.getLength();
+        times[pPosition] = pPath.getTime();
+    }
+
+    /**
+     * This method returns the number of ids of this snapshot. All town ids are
+     * smaller than this number.
+     *
+     * @return the number of town ids
+     */
+    public int getIdCapacity() {
+        return towns.length;
+    }
+
+    /**
+     * This method returns the number of (undirected) paths.
+     *
+     * @return the number of paths
+     */
+    public int getPathCount() {
+        return pathCount;
+    }
+
+    /**
+     * This method returns the town with a certain id.
+     *
+     * @param pId
+     *            the id of the town
+     * @return the town with this id, null if the id is not in use
+     */
+    public Town getTown(int pId) {
+        return towns[pId];
+    }
+
+    /**
+     * This method returns the start positions of the paths of each town.
+     *
+     * @return the offsets (one entry per id and one additional entry)
+     */
+    public int[] getOffsets() {
+        return offsets;
+    }
+
+    /**
+     * This method returns the target of each path.
+     *
+     * @return the ids of the towns the paths lead to
+     */
+    public int[] getTargets() {
+        return targets;
+    }
+
+    /**
+     * This method returns the length of each path.
+     *
+     * @return the lengths of the paths
+     */
+    public int[] getLengths() {
+        return lengths;
+    }
+
+    /**
+     * This method returns the time of each path.
+     *
+     * @return the times of the paths
+     */
+    public int[] getTimes() {
+        return times;
+    }
+
+    /**
+     * This method returns the weight of each path according to a criterion.
+     *
+     * @param pCriterion
+     *            the criterion according to which the weight is needed
+     * @return lengths in case of criterion route, times in case of criterion
+     *         time
+     * @throws IllegalInputException
+     *             if criterion is illegal (e.g. all or optimal)
+     */
+    public int[] getWeights(Criterion pCriterion) throws IllegalInputException {
+        if (Criterion.ROUTE.equals(pCriterion)) {
+            return lengths;
+        } else if (Criterion.TIME.equals(pCriterion)) {
+            return times;
+        } else { // invalid criterion
+            throw new IllegalInputException("Error, invalid criterion. Please choose 'route' or 'time'.");
+        }
+    }
+
+    /**
+     * This method calculates the weights of the shortest routes from one town
+     * to all other towns (Dijkstra algorithm without destination). Since the
+     * graph is undirected, these are also the weights of the shortest routes
+     * from all towns to this town.
+     *
+     * @param pStart
+     *            id of the town where all routes start
+     * @param pWeights
+     *            weight of each path (see getWeights)
+     * @return for each town id: the weight of the shortest route,
+     *         Long.MAX_VALUE if there is no route
+     */
+    public long[] shortestRoutes(int pStart, int[] pWeights) {
+        SearchWorkspace workspace = SearchWorkspace.acquire(towns.length);
+        workspace.reach(pStart, 0, -1);
+        while (!workspace.isHeapEmpty()) {
+            int town = workspace.visitNext();
+            long mark = workspace.getMark(town);
+            for (int i = offsets[town]; i < offsets[town + 1]; i++) {
+                if (!workspace.isVisited(targets[i]) && mark + pWeights[i] < workspace.getMark(targets[i])) {
+                    workspace.reach(targets[i], mark + pWeights[i], town);
+                }
+            }
+        }
+        long[] result = new long[towns.length];
+        for (int town = 0; town < result.length; town++) {
+            result[town] = workspace.getMark(town);
+        }
+        workspace.release();
+        return result;
+    }
+}
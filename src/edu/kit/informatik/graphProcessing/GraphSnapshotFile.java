@@ -0,0 +1,286 @@
+package edu.kit.informatik.graphProcessing;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+import edu.kit.informatik.userInterface.IllegalInputException;
+
+/**
+ * This class writes a graph into a binary file and reads it again, so that a
+ * graph does not have to be parsed and checked again each time the program
+ * starts. The file contains (all numbers as big endian ints):
+ * <ul>
+ * <li>the magic bytes (the byte 0x89, "KITGRAPH", CR, LF and 0x1A) and the
+ * version of the format; since the first byte is no letter, a text file
+ * cannot begin with them</li>
+ * <li>the number of towns and the number of paths</li>
+ * <li>the names of the towns (length and UTF-8 bytes), in the order of the
+ * towns of the graph</li>
+ * <li>the paths of each town in compressed sparse row form: offsets, targets,
+ * lengths and times (like GraphSnapshot, but indexed by the position of the
+ * towns in the file)</li>
+ * <li>for each path in the order of the paths of the graph: its start town
+ * and the position of its entry in the row of the start town</li>
+ * <li>a CRC32 checksum of all bytes before</li>
+ * </ul>
+ * The towns and paths are added to the new graph in the same order as they
+ * are stored in the original graph, so the new graph prints the same way.
+ * The arrays become the snapshot of the new graph (see GraphSnapshot), the
+ * ids of the towns are their positions in the file.
+ *
+ * @author Johanna Thiemich
+ * @version 1.0
+ */
+public final class GraphSnapshotFile {
+    /**
+     * the first bytes of each snapshot file
+     */
+    private static final byte[] MAGIC = {(byte) 0x89, 'K', 'I', 'T', 'G', 'R', 'A', 'P', 'H', '\r', '\n', 0x1A};
+    /**
+     * version of the format written by this class
+     */
+    private static final int VERSION = 2;
+    /**
+     * charset of the names of the towns
+     */
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /**
+     * Private constructor to avoid instantiation.
+     */
+    private GraphSnapshotFile() {
+        // intentionally left blank
+    }
+
+    /**
+     * This method checks whether a file is a snapshot file, that means
+     * whether it begins with the magic bytes.
+     *
+     * @param pFile
+     *            path of the file
+     * @return true if the file is a snapshot file, false if it is not or if
+     *         it cannot be read
+     */
+    public static boolean isSnapshot(String pFile) {
+        FileInputStream in = null;
+        try {
+            in = new FileInputStream(pFile);
+            byte[] magic = new byte[MAGIC.length];
+            int read = 0;
+            while (read < magic.length) {
+                int count = in.read(magic, read, magic.length - read);
+                if (count < 0) {
+                    return false;
+                }
+                read += count;
+            }
+            for (int i = 0; i < magic.length; i++) {
+                if (magic[i] != MAGIC[i]) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            return false;
+        } finally {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException e) {
+                    // no need for handling this exception
+                }
+            }
+        }
+    }
+
+    /**
+     * This method writes a graph into a snapshot file.
+     *
+     * @param pGraph
+     *            the graph
+     * @param pFile
+     *            path of the file
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    public static void write(Graph pGraph, String pFile) throws IOException {
+        ArrayList<Town> towns = pGraph.getTowns();
+        ArrayList<Path> paths = pGraph.getPaths();
+        // position of each town in the file, indexed by the id of the town
+        int[] positions = new int[pGraph.getIdCapacity()];
+        for (int i = 0; i < towns.size(); i++) {
+            positions[towns.get(i).getId()] = i;
+        }
+        // paths of each town in the order of its neighbors
+        int[] offsets = new int[towns.size() + 1];
+        int[] targets = new int[2 * paths.size()];
+        int[] lengths = new int[2 * paths.size()];
+        int[] times = new int[2 * paths.size()];
+        IdentityHashMap<Path, Integer> entries = new IdentityHashMap<Path, Integer>();
+        int entry = 0;
+        for (int i = 0; i < towns.size(); i++) {
+            for (Town neighbor : towns.get(i).getNeighbors().values()) {
+                Path path = pGraph.findPath(towns.get(i), neighbor);
+                targets[entry] = positions[neighbor.getId()];
+                lengths[entry] = path.getLength();
+                times[entry] = path.getTime();
+                if (path.getStart() == towns.get(i)) {
+                    entries.put(path, entry);
+                }
+                entry++;
+            }
+            offsets[i + 1] = entry;
+        }
+
+        CRC32 checksum = new CRC32();
+        FileOutputStream file = new FileOutputStream(pFile);
+        DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new CheckedOutputStream(file, checksum), 1 << 16));
+        try {
+            out.write(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(towns.size());
+            out.writeInt(paths.size());
+            for (Town town : towns) {
+                byte[] name = town.getName().getBytes(UTF_8);
+                out.writeInt(name.length);
+                out.write(name);
+            }
+            writeInts(out, offsets);
+            writeInts(out, targets);
+            writeInts(out, lengths);
+            writeInts(out, times);
+            for (Path path : paths) {
+                out.writeInt(positions[path.getStart().getId()]);
+                out.writeInt(entries.get(path));
+            }
+            out.flush();
+            // the checksum itself is not part of the checked bytes
+            new DataOutputStream(file).writeInt((int) checksum.getValue());
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * This method writes an array of ints.
+     *
+     * @param pOut
+     *            the stream
+     * @param pValues
+     *            the ints
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    private static void writeInts(DataOutputStream pOut, int[] pValues) throws IOException {
+        for (int value : pValues) {
+            pOut.writeInt(value);
+        }
+    }
+
+    /**
+     * This method creates a graph out of a snapshot file. The file is mapped
+     * into memory; apart from the checksum, nothing is checked, since the
+     * file has been written from a correct graph.
+     *
+     * @param pFile
+     *            path of the file
+     * @return the graph
+     * @throws IncorrectInputFileException
+     *             if the file is not a snapshot file of a supported version or
+     *             if it has been damaged
+     * @throws IOException
+     *             if the file cannot be read
+     */
+    public static Graph read(String pFile) throws IncorrectInputFileException, IOException {
+        FileInputStream in = new FileInputStream(pFile);
+        MappedByteBuffer buffer;
+        try {
+            FileChannel channel = in.getChannel();
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IncorrectInputFileException("Error, the snapshot file is too large.");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } finally {
+            // the mapping stays valid after closing the file
+            in.close();
+        }
+        if (buffer.limit() < MAGIC.length + 16) {
+            throw new IncorrectInputFileException("Error, the snapshot file is incomplete.");
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (buffer.get(i) != MAGIC[i]) {
+                throw new IncorrectInputFileException("Error, this is not a snapshot file.");
+            }
+        }
+        int version = buffer.getInt(MAGIC.length);
+        if (version != VERSION) {
+            throw new IncorrectInputFileException("Error, version " + version + " of the snapshot file is not "
+                    + "supported (expected version " + VERSION + ").");
+        }
+        CRC32 checksum = new CRC32();
+        ByteBuffer checked = buffer.duplicate();
+        checked.limit(buffer.limit() - 4);
+        checksum.update(checked);
+        if ((int) checksum.getValue() != buffer.getInt(buffer.limit() - 4)) {
+            throw new IncorrectInputFileException("Error, the snapshot file is damaged (wrong checksum).");
+        }
+
+        buffer.position(MAGIC.length + 4);
+        int townCount = buffer.getInt();
+        int pathCount = buffer.getInt();
+        Town[] towns = new Town[townCount];
+        for (int i = 0; i < townCount; i++) {
+            byte[] name = new byte[buffer.getInt()];
+            buffer.get(name);
+            towns[i] = new Town(new String(name, UTF_8));
+        }
+        // the arrays are copied out of the mapped file at once
+        int[] offsets = readInts(buffer, townCount + 1);
+        int[] targets = readInts(buffer, 2 * pathCount);
+        int[] lengths = readInts(buffer, 2 * pathCount);
+        int[] times = readInts(buffer, 2 * pathCount);
+        int[] entries = readInts(buffer, 2 * pathCount);
+        Path[] paths = new Path[pathCount];
+        for (int i = 0; i < pathCount; i++) {
+            int entry = entries[2 * i + 1];
+            paths[i] = new Path(towns[entries[2 * i]], towns[targets[entry]], lengths[entry], times[entry]);
+        }
+        Graph graph = new Graph();
+        try {
+            graph.load(towns, paths, new GraphSnapshot(towns, offsets, targets, lengths, times));
+        } catch (IllegalInputException e) {
+            // the file has been written from a graph without duplicate paths
+            throw new IncorrectInputFileException("Error, the snapshot file contains duplicate paths.");
+        }
+        return graph;
+    }
+
+    /**
+     * This method reads an array of ints at the current position of a
+     * buffer.
+     *
+     * @param pBuffer
+     *            the buffer, it is positioned behind the ints afterwards
+     * @param pCount
+     *            number of ints
+     * @return the ints
+     */
+    private static int[] readInts(ByteBuffer pBuffer, int pCount) {
+        int[] values = new int[pCount];
+        pBuffer.asIntBuffer().get(values);
+        pBuffer.position(pBuffer.position() + 4 * pCount);
+        return values;
+    }
+}
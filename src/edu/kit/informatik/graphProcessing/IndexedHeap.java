@@ -0,0 +1,193 @@
+package edu.kit.informatik.graphProcessing;
+
+import java.util.Arrays;
+
+/**
+ * This class represents a priority queue of towns, implemented as an indexed
+ * d-ary min-heap. The towns are represented by their ids (see Town.getId()).
+ * The heap remembers the position of every town it contains, so the key of a
+ * town can be decreased without searching for it.
+ *
+ * @author Johanna Thiemich
+ * @version 1.0
+ */
+public class IndexedHeap {
+    /**
+     * number of children of each node in the heap
+     */
+    private static final int ARITY = 4;
+
+    /**
+     * the ids of the towns in heap order
+     */
+    private int[] heap;
+    /**
+     * the keys of the towns, same order as heap
+     */
+    private long[] keys;
+    /**
+     * for each town id: position in the heap, -1 if the town is not in the
+     * heap
+     */
+    private int[] positions;
+    /**
+     * number of towns in the heap
+     */
+    private int size;
+
+    /**
+     * This creates a new, empty heap.
+     *
+     * @param pCapacity
+     *            number of town ids the heap has to be able to hold (all ids
+     *            have to be smaller than this number)
+     */
+    public IndexedHeap(int pCapacity) {
+        heap = new int[pCapacity];
+        keys = new long[pCapacity];
+        positions = new int[pCapacity];
+        Arrays.fill(positions, -1);
+        size = 0;
+    }
+
+    /**
+     * This method checks whether the heap is empty.
+     *
+     * @return true if the heap does not contain any town, false if not
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * This method removes all towns from the heap. Only the towns that are in
+     * the heap are touched, so this is cheap if the heap is (almost) empty.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    /**
+     * This method inserts a town into the heap. If the heap already contains
+     * the town, its key is decreased to the given key (a larger key is
+     * ignored).
+     *
+     * @param pId
+     *            id of the town that is going to be inserted
+     * @param pKey
+     *            key (e.g. distance) of the town
+     */
+    public void insertOrDecrease(int pId, long pKey) {
+        int position = positions[pId];
+        if (position < 0) {
+            // new town --> add at the end and move it up
+            siftUp(pId, pKey, size);
+            size++;
+        } else if (pKey < keys[position]) {
+            siftUp(pId, pKey, position);
+        }
+    }
+
+    /**
+     * This method removes the town with the minimal key from the heap.
+     *
+     * @return the id of the town with the minimal key
+     */
+    public int poll() {
+        int min = heap[0];
+        positions[min] = -1;
+        size--;
+        if (size > 0) {
+            // move last element to the top and restore heap order
+            siftDown(heap[size], keys[size], 0);
+        }
+        return min;
+    }
+
+    /**
+     * This method returns the minimal key in the heap without removing it.
+     *
+     * @return the minimal key
+     */
+    public long peekKey() {
+        return keys[0];
+    }
+
+    /**
+     * This method moves an element up from the given position until the heap
+     * order is restored.
+     *
+     * @param pId
+     *            id of the town
+     * @param pKey
+     *            key of the town
+     * @param pPosition
+     *            position the search for the right place starts at
+     */
+    private void siftUp(int pId, long pKey, int pPosition) {
+        int position = pPosition;
+        while (position > 0) {
+            int parent = (position - 1) / ARITY;
+            if (keys[parent] <= pKey) {
+                break;
+            }
+            place(heap[parent], keys[parent], position);
+            position = parent;
+        }
+        place(pId, pKey, position);
+    }
+
+    /**
+     * This method moves an element down from the given position until the
+     * heap order is restored.
+     *
+     * @param pId
+     *            id of the town
+     * @param pKey
+     *            key of the town
+     * @param pPosition
+     *            position the search for the right place starts at
+     */
+    private void siftDown(int pId, long pKey, int pPosition) {
+        int position = pPosition;
+        while (true) {
+            int firstChild = position * ARITY + 1;
+            if (firstChild >= size) {
+                break;
+            }
+            // find child with minimal key
+            int minChild = firstChild;
+            int lastChild = Math.min(firstChild + ARITY, size);
+            for (int child = firstChild + 1; child < lastChild; child++) {
+                if (keys[child] < keys[minChild]) {
+                    minChild = child;
+                }
+            }
+            if (keys[minChild] >= pKey) {
+                break;
+            }
+            place(heap[minChild], keys[minChild], position);
+            position = minChild;
+        }
+        place(pId, pKey, position);
+    }
+
+    /**
+     * This method puts a town with its key at a certain position.
+     *
+     * @param pId
+     *            id of the town
+     * @param pKey
+     *            the key of the town
+     * @param pPosition
+     *            position in the heap
+     */
+    private void place(int pId, long pKey, int pPosition) {
+        heap[pPosition] = pId;
+        keys[pPosition] = pKey;
+        positions[pId] = pPosition;
+    }
+}
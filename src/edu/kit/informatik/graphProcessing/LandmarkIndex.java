@@ -0,0 +1,124 @@
+package edu.kit.informatik.graphProcessing;
+
+import edu.kit.informatik.userInterface.IllegalInputException;
+
+/**
+ * This class selects some towns of a graph as landmarks and saves the weight
+ * of the shortest route from each landmark to every town (for one criterion,
+ * time or route). Because of the triangle inequality, these weights give a
+ * lower bound of the weight of the shortest route between any two towns:
+ * weight(v, t) is at least |weight(landmark, t) - weight(landmark, v)|. The
+ * graph does not contain coordinates, so AltAlgorithm uses these bounds to
+ * lead its search towards the destination.<br>
+ * The landmarks are selected by the "farthest" strategy: each new landmark is
+ * the town that is farthest away from all landmarks selected before, so the
+ * landmarks lie at the border of the graph.
+ *
+ * @author Johanna Thiemich
+ * @version 1.0
+ */
+public class LandmarkIndex {
+    /**
+     * maximal number of landmarks
+     */
+    private static final int MAX_LANDMARKS = 16;
+
+    /**
+     * for each landmark and each town id: weight of the shortest route from
+     * the landmark to the town (Long.MAX_VALUE if there is no route)
+     */
+    private long[][] distances;
+
+    /**
+     * This creates a new landmark index of a graph.
+     *
+     * @param pSnapshot
+     *            the snapshot of the graph
+     * @param pCriterion
+     *            the criterion (time or route) the index is created for
+     * @throws IllegalInputException
+     *             if the criterion is invalid (e.g. all or optimal)
+     */
+    public LandmarkIndex(GraphSnapshot pSnapshot, Criterion pCriterion) throws IllegalInputException {
+        int[] weights = pSnapshot.getWeights(pCriterion);
+        int townCount = 0;
+        int firstTown = -1;
+        for (int town = 0; town < pSnapshot.getIdCapacity(); town++) {
+            if (pSnapshot.getTown(town) != null) {
+                townCount++;
+                if (firstTown < 0) {
+                    firstTown = town;
+                }
+            }
+        }
+        int landmarkCount = Math.min(MAX_LANDMARKS, townCount);
+        int[] landmarks = new int[landmarkCount];
+        distances = new long[landmarkCount][];
+        if (landmarkCount == 0) {
+            return;
+        }
+        // first landmark: the town farthest away from an arbitrary town
+        long[] minDistances = pSnapshot.shortestRoutes(firstTown, weights);
+        for (int i = 0; i < landmarkCount; i++) {
+            landmarks[i] = farthestTown(minDistances);
+            distances[i] = pSnapshot.shortestRoutes(landmarks[i], weights);
+            if (i == 0) {
+                minDistances = distances[0].clone();
+            } else {
+                for (int town = 0; town < minDistances.length; town++) {
+                    minDistances[town] = Math.min(minDistances[town], distances[i][town]);
+                }
+            }
+        }
+    }
+
+    /**
+     * This method finds the town with the largest weight, not counting towns
+     * that cannot be reached.
+     *
+     * @param pDistances
+     *            for each town id: a weight
+     * @return the id of the town with the largest weight
+     */
+    private int farthestTown(long[] pDistances) {
+        int farthest = -1;
+        for (int town = 0; town < pDistances.length; town++) {
+            if (pDistances[town] != Long.MAX_VALUE
+                    && (farthest < 0 || pDistances[town] > pDistances[farthest])) {
+                farthest = town;
+            }
+        }
+        return farthest;
+    }
+
+    /**
+     * This method returns the lower bound of the weight of the shortest route
+     * between two towns that one landmark provides.
+     *
+     * @param pLandmark
+     *            number of the landmark (not its id)
+     * @param pTown
+     *            id of one town
+     * @param pOther
+     *            id of the other town
+     * @return the lower bound
+     */
+    public long lowerBound(int pLandmark, int pTown, int pOther) {
+        long toTown = distances[pLandmark][pTown];
+        long toOther = distances[pLandmark][pOther];
+        if (toTown == Long.MAX_VALUE || toOther == Long.MAX_VALUE) {
+            // landmark does not know anything about these towns
+            return 0;
+        }
+        return Math.abs(toTown - toOther);
+    }
+
+    /**
+     * This method returns the number of landmarks.
+     *
+     * @return the number of landmarks
+     */
+    public int getLandmarkCount() {
+        return distances.length;
+    }
+}
@@ -0,0 +1,387 @@
+package edu.kit.informatik.graphProcessing;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * This class finds all routes between two towns using several threads. The
+ * routes are split by their first towns (prefix): first, the routes are
+ * followed for some steps until there are enough different prefixes. Then the
+ * routes beginning with each prefix are searched by tasks of a fork join
+ * pool. Each running task uses a cursor of its own (see
+ * DepthFirstSearch.RouteCursor), whose arrays are as large as the graph; the
+ * cursors are reused for the next tasks, and between two tasks of a prefix
+ * only the small state of its search is kept.<br>
+ * The routes are handed to the sink by the invoking thread in the same order
+ * as DepthFirstSearch finds them, so the result does not depend on the number
+ * of threads. Only a few prefixes are searched at the same time, and each
+ * task finds a limited number of routes before the search of its prefix is
+ * continued by the next task. So the routes that have been found but not
+ * handed to the sink yet are limited, and when the sink wants no more
+ * routes, the search stops after a few more routes.
+ *
+ * @author Johanna Thiemich
+ * @version 1.0
+ */
+public class ParallelRouteEnumerator {
+    /**
+     * number of prefixes to be created for each thread of the pool, so that
+     * idle threads can take over the work of others
+     */
+    private static final int TASKS_PER_THREAD = 16;
+    /**
+     * maximal number of towns of a prefix
+     */
+    private static final int MAX_PREFIX_LENGTH = 32;
+    /**
+     * number of prefixes searched at the same time for each thread of the
+     * pool
+     */
+    private static final int ACTIVE_PER_THREAD = 2;
+    /**
+     * maximal number of routes found by one task
+     */
+    private static final int BATCH_SIZE = 256;
+    /**
+     * maximal number of tasks of one prefix whose routes have not been handed
+     * to the sink yet
+     */
+    private static final int BATCHES_AHEAD = 4;
+
+    /**
+     * the search that is executed for each prefix
+     */
+    private DepthFirstSearch search;
+    /**
+     * the pool that executes the tasks
+     */
+    private ForkJoinPool pool;
+    /**
+     * the cursors that are not used by a task at the moment
+     */
+    private ArrayDeque<DepthFirstSearch.RouteCursor> freeCursors;
+
+    /**
+     * This creates a new parallel search for the routes of a depth first
+     * search, using the common fork join pool.
+     *
+     * @param pSearch
+     *            the depth first search that is split into tasks
+     */
+    ParallelRouteEnumerator(DepthFirstSearch pSearch) {
+        search = pSearch;
+        pool = ForkJoinPool.commonPool();
+        freeCursors = new ArrayDeque<DepthFirstSearch.RouteCursor>();
+    }
+
+    /**
+     * This method finds all routes and hands them to the sink in the order in
+     * which DepthFirstSearch finds them. The sink is only invoked by the
+     * thread invoking this method. If the pool has only one thread, the
+     * routes are found by the invoking thread itself.
+     *
+     * @param pSink
+     *            receives the found routes; the search stops as soon as the
+     *            sink returns false
+     */
+    public void enumerateRoutes(RouteSink pSink) {
+        if (pool.getParallelism() <= 1) {
+            // no thread to share the work with
+            search.enumerateRoutes(pSink);
+            return;
+        }
+        ArrayList<int[]> prefixes = createPrefixes();
+        int active = ACTIVE_PER_THREAD * pool.getParallelism();
+        // the prefixes that are searched at the same time, in order
+        ArrayDeque<PrefixSearch> window = new ArrayDeque<PrefixSearch>();
+        int created = 0;
+        try {
+            while (created < prefixes.size() || !window.isEmpty()) {
+                while (window.size() < active && created < prefixes.size()) {
+                    window.add(new PrefixSearch(prefixes.get(created)));
+                    created++;
+                }
+                for (PrefixSearch prefixSearch : window) {
+                    prefixSearch.submitBatches();
+                }
+                // hand the routes of the first prefix to the sink
+                RouteTrie batch = window.peek().nextBatch();
+                if (batch == null) {
+                    // all routes of the prefix have been handed to the sink
+                    window.poll();
+                    continue;
+                }
+                for (ArrayList<Town> route : batch) {
+                    if (!pSink.accept(route)) {
+                        return;
+                    }
+                }
+            }
+        } finally {
+            // no more routes needed --> cancel tasks that have not started
+            for (PrefixSearch prefixSearch : window) {
+                prefixSearch.cancel();
+            }
+        }
+    }
+
+    /**
+     * This method creates the prefixes of the routes. One prefix at a time is
+     * replaced by its extensions by one town (the shortest one first, so a
+     * town with many neighbors does not multiply all prefixes), until there
+     * are enough of them or they have become too long. The order of the
+     * depth first search is kept. A prefix ending at the destination is a
+     * complete route.
+     *
+     * @return the prefixes in the order of the depth first search
+     */
+    private ArrayList<int[]> createPrefixes() {
+        GraphSnapshot snapshot = search.getSnapshot();
+        int[] offsets = snapshot.getOffsets();
+        int[] targets = snapshot.getTargets();
+        int destination = search.getDestination().getId();
+        int wanted = TASKS_PER_THREAD * pool.getParallelism();
+
+        ArrayList<int[]> prefixes = new ArrayList<int[]>();
+        if (search.getStart().equals(search.getDestination())) {
+            // a route from a town to itself is not regarded as a route
+            return prefixes;
+        }
+        prefixes.add(new int[] {search.getStart().getId()});
+        int open = 1;
+        while (open < wanted) {
+            // the shortest prefix that does not end at the destination
+            int shortest = -1;
+            for (int i = 0; i < prefixes.size(); i++) {
+                int[] prefix = prefixes.get(i);
+                if (prefix[prefix.length - 1] != destination && prefix.length < MAX_PREFIX_LENGTH
+                        && (shortest < 0 || prefix.length < prefixes.get(shortest).length)) {
+                    shortest = i;
+                }
+            }
+            if (shortest < 0) {
+                // all prefixes are complete or too long
+                break;
+            }
+            int[] prefix = prefixes.get(shortest);
+            int last = prefix[prefix.length - 1];
+            ArrayList<int[]> longer = new ArrayList<int[]>();
+            for (int i = offsets[last]; i < offsets[last + 1]; i++) {
+                if (!contains(prefix, targets[i]) && search.mayBeOnRoute(targets[i])) {
+                    int[] next = Arrays.copyOf(prefix, prefix.length + 1);
+                    next[prefix.length] = targets[i];
+                    longer.add(next);
+                    if (targets[i] != destination) {
+                        open++;
+                    }
+                }
+            }
+            open--;
+            prefixes.remove(shortest);
+            prefixes.addAll(shortest, longer);
+        }
+        return prefixes;
+    }
+
+    /**
+     * This method checks whether a prefix contains a town.
+     *
+     * @param pPrefix
+     *            ids of the towns of the prefix
+     * @param pTown
+     *            id of the town
+     * @return true if the town is part of the prefix
+     */
+    private boolean contains(int[] pPrefix, int pTown) {
+        for (int town : pPrefix) {
+            if (town == pTown) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * This method takes a cursor that is not used by another task, or
+     * creates one if there is none.
+     *
+     * @return the cursor
+     */
+    private synchronized DepthFirstSearch.RouteCursor takeCursor() {
+        DepthFirstSearch.RouteCursor cursor = freeCursors.poll();
+        return cursor != null ? cursor : search.createCursor();
+    }
+
+    /**
+     * This method gives back a cursor after a task has used it.
+     *
+     * @param pCursor
+     *            the cursor
+     */
+    private synchronized void returnCursor(DepthFirstSearch.RouteCursor pCursor) {
+        freeCursors.push(pCursor);
+    }
+
+    /**
+     * This method converts a complete route of ids into a trie holding only
+     * this route.
+     *
+     * @param pRoute
+     *            ids of the towns of the route
+     * @return the trie of the route
+     */
+    private RouteTrie toTrie(int[] pRoute) {
+        ArrayList<Town> route = new ArrayList<Town>(pRoute.length);
+        for (int town : pRoute) {
+            route.add(search.getSnapshot().getTown(town));
+        }
+        RouteTrie trie = new RouteTrie(search.getSnapshot());
+        trie.add(route);
+        return trie;
+    }
+
+    /**
+     * The search for the routes beginning with one prefix, split into tasks
+     * that are executed one after another.
+     */
+    private class PrefixSearch {
+        /**
+         * ids of the first towns of the routes
+         */
+        private int[] prefix;
+        /**
+         * true if the prefix ends at the destination (it is a complete route)
+         */
+        private boolean complete;
+        /**
+         * the state of the search after the last task, null if the first task
+         * has not started yet
+         */
+        private DepthFirstSearch.CursorState state;
+        /**
+         * true if all routes of the prefix have been found
+         */
+        private boolean finished;
+        /**
+         * the tasks whose routes have not been handed to the sink yet, in
+         * order; only the last one may still be running
+         */
+        private ArrayDeque<ForkJoinTask<RouteTrie>> batches;
+
+        /**
+         * This creates a new search for the routes beginning with a prefix.
+         *
+         * @param pPrefix
+         *            ids of the first towns of the routes
+         */
+        PrefixSearch(int[] pPrefix) {
+            prefix = pPrefix;
+            complete = pPrefix[pPrefix.length - 1] == search.getDestination().getId();
+            batches = new ArrayDeque<ForkJoinTask<RouteTrie>>();
+        }
+
+        /**
+         * This method starts the next task of this prefix if the last one is
+         * done, the search is not finished and not too many routes are
+         * waiting for the sink.
+         */
+        void submitBatches() {
+            ForkJoinTask<RouteTrie> last = batches.peekLast();
+            // the state must not be read while a task is using it
+            if (!complete && (last == null || last.isDone()) && batches.size() < BATCHES_AHEAD && !finished) {
+                batches.add(pool.submit(new BatchTask(this)));
+            }
+        }
+
+        /**
+         * This method waits for the next routes of this prefix.
+         *
+         * @return the routes of the next task, null if all routes of this
+         *         prefix have been returned
+         */
+        RouteTrie nextBatch() {
+            if (complete) {
+                if (prefix == null) {
+                    return null;
+                }
+                RouteTrie batch = toTrie(prefix);
+                // the route is only returned once
+                prefix = null;
+                return batch;
+            }
+            ForkJoinTask<RouteTrie> task = batches.poll();
+            if (task == null) {
+                // submitBatches has found the search to be finished
+                return null;
+            }
+            RouteTrie batch = task.join();
+            // the search goes on while the routes are handed to the sink
+            submitBatches();
+            return batch;
+        }
+
+        /**
+         * This method cancels the tasks of this prefix that have not started
+         * yet.
+         */
+        void cancel() {
+            for (ForkJoinTask<RouteTrie> task : batches) {
+                task.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * This task continues the search of one prefix until it has found
+     * BATCH_SIZE routes or all routes of the prefix. The routes of a batch
+     * share the towns of the prefix and often many more, so they are kept in
+     * a RouteTrie until they are handed to the sink.
+     */
+    private class BatchTask extends RecursiveTask<RouteTrie> {
+        /**
+         * for serialization
+         */
+        private static final long serialVersionUID = 1L;
+        /**
+         * the search of the prefix
+         */
+        private PrefixSearch prefixSearch;
+
+        /**
+         * This creates a new task.
+         *
+         * @param pPrefixSearch
+         *            the search of the prefix
+         */
+        BatchTask(PrefixSearch pPrefixSearch) {
+            prefixSearch = pPrefixSearch;
+        }
+
+        @Override
+        protected RouteTrie compute() {
+            // the marks are created by the task, not by the invoking thread
+            DepthFirstSearch.RouteCursor cursor = takeCursor();
+            if (prefixSearch.state == null) {
+                cursor.reset(prefixSearch.prefix);
+            } else {
+                cursor.restore(prefixSearch.state);
+            }
+            final RouteTrie routes = new RouteTrie(search.getSnapshot());
+            cursor.advance(new RouteSink() {
+                @Override
+                public boolean accept(ArrayList<Town> pRoute) {
+                    routes.add(pRoute);
+                    return routes.size() < BATCH_SIZE;
+                }
+            });
+            prefixSearch.finished = cursor.isFinished();
+            prefixSearch.state = prefixSearch.finished ? null : cursor.save();
+            returnCursor(cursor);
+            return routes;
+        }
+    }
+}
@@ -0,0 +1,527 @@
+package edu.kit.informatik.graphProcessing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.kit.informatik.userInterface.IllegalInputException;
+
+/**
+ * This class finds the optimal route between two towns without creating all
+ * routes. Optimal means: length^2 + time^2 is minimal.<br>
+ * A route that is neither shorter nor faster than another route (it is
+ * "dominated") can never be optimal. So the search only keeps the routes
+ * which are not dominated (the pareto front), using a label setting
+ * algorithm: each label is a route from the start to a town, labels are
+ * visited in the order of their length (then time). A label is dropped if a
+ * label of the same town that has already been visited is at least as fast.
+ * Finally, the optimal route is chosen among the labels of the destination.
+ * Lengths, times and weights are longs, since they may exceed the range of
+ * an int even if each path fits into it.
+ *
+ * @author Johanna Thiemich
+ * @version 1.0
+ */
+public class ParetoSearch {
+    /**
+     * largest length or time whose square fits into a long
+     */
+    private static final long MAX_FACTOR = 3037000499L;
+    /**
+     * number of groups of routes to be created for each thread of the pool,
+     * so that idle threads can take over the work of others
+     */
+    private static final int TASKS_PER_THREAD = 2;
+
+    /**
+     * compact copy of the graph in which is being searched
+     */
+    private GraphSnapshot snapshot;
+    /**
+     * starting town
+     */
+    private Town start;
+    /**
+     * destination town
+     */
+    private Town destination;
+
+    /**
+     * for each label: the length of its route
+     */
+    private long[] lengths;
+    /**
+     * for each label: the time of its route
+     */
+    private long[] times;
+    /**
+     * for each label: the id of the town its route ends at
+     */
+    private int[] towns;
+    /**
+     * for each label: the label its route has been extended from, -1 for the
+     * label of the start
+     */
+    private int[] parents;
+    /**
+     * number of labels
+     */
+    private int labelCount;
+    /**
+     * heap of the labels that have not been visited yet
+     */
+    private int[] heap;
+    /**
+     * number of labels in the heap
+     */
+    private int heapSize;
+    /**
+     * for each town id: smallest time of all visited labels of the town
+     */
+    private long[] minTimes;
+
+    /**
+     * the optimal route, empty if there is none
+     */
+    private ArrayList<Town> optimalRoute;
+    /**
+     * the weight of the optimal route (in km^2 + min^2), -1 if there is none
+     */
+    private Long weightOptimalRoute;
+    /**
+     * remembers whether the findOptimalRoute method has already been invoked
+     */
+    private boolean foundOptimalRoute;
+
+    /**
+     * This creates a new search for the optimal route between two towns.
+     *
+     * @param pGraph
+     *            the graph in which is being searched for the route
+     * @param pStart
+     *            starting town
+     * @param pDestination
+     *            destination town
+     * @throws ObjectNotFoundException
+     *             if starting and/or destination town do not exist in the given
+     *             graph or if one or both of the given towns is null
+     */
+    public ParetoSearch(Graph pGraph, Town pStart, Town pDestination) throws ObjectNotFoundException {
+        if (pGraph.containsTown(pStart) && pGraph.containsTown(pDestination)) {
+            snapshot = pGraph.getSnapshot();
+            start = pGraph.findTown(pStart.getName());
+            destination = pGraph.findTown(pDestination.getName());
+            optimalRoute = new ArrayList<Town>();
+            weightOptimalRoute = -1L;
+            foundOptimalRoute = false;
+        } else { // towns not found in graph or towns are null
+            throw new ObjectNotFoundException("Error, this graph does not contain one or both of the towns.");
+        }
+    }
+
+    /**
+     * This creates a search for a part of the routes of another search (see
+     * findOptimalRoute).
+     *
+     * @param pSearch
+     *            the search the routes belong to
+     */
+    private ParetoSearch(ParetoSearch pSearch) {
+        snapshot = pSearch.snapshot;
+        start = pSearch.start;
+        destination = pSearch.destination;
+    }
+
+    /**
+     * This method finds the optimal route. Like DepthFirstSearch, a route
+     * from a town to itself is not regarded as a route, so in this case no
+     * route is found.<br>
+     * If the common fork join pool has several threads, the routes are split
+     * by their first path into groups, which are searched at the same time.
+     * All groups share the weight of the best route found so far and drop
+     * every label that is worse. Since the labels are ordered by their routes
+     * (see less), the best route of all groups is the same route the search
+     * with one thread finds, no matter in which order the threads find their
+     * routes.
+     *
+     * @throws IllegalInputException
+     *             if the weight of the optimal route does not fit into a long
+     */
+    public void findOptimalRoute() throws IllegalInputException {
+        foundOptimalRoute = true;
+        if (start.equals(destination)) {
+            return;
+        }
+        int first = snapshot.getOffsets()[start.getId()];
+        int end = snapshot.getOffsets()[start.getId() + 1];
+        AtomicLong bestWeight = new AtomicLong(Long.MAX_VALUE);
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        int groups = Math.min(end - first, TASKS_PER_THREAD * pool.getParallelism());
+        ParetoSearch bestSearch = this;
+        int bestLabel;
+        if (pool.getParallelism() <= 1 || groups <= 1) {
+            bestLabel = search(first, end, bestWeight);
+        } else {
+            ArrayList<ParetoSearch> parts = new ArrayList<ParetoSearch>();
+            ArrayList<ForkJoinTask<Integer>> tasks = new ArrayList<ForkJoinTask<Integer>>();
+            for (int group = 0; group < groups; group++) {
+                ParetoSearch part = new ParetoSearch(this);
+                parts.add(part);
+                tasks.add(pool.submit(new GroupTask(part, first + (end - first) * group / groups,
+                        first + (end - first) * (group + 1) / groups, bestWeight)));
+            }
+            bestLabel = -1;
+            for (int group = 0; group < groups; group++) {
+                ParetoSearch part = parts.get(group);
+                int label = tasks.get(group).join();
+                if (label >= 0 && (bestLabel < 0 || part.isBetter(label, bestSearch, bestLabel))) {
+                    bestSearch = part;
+                    bestLabel = label;
+                }
+            }
+        }
+
+        if (bestLabel >= 0) {
+            long weight = weight(bestSearch.lengths[bestLabel], bestSearch.times[bestLabel]);
+            if (weight == Long.MAX_VALUE) {
+                throw new IllegalInputException("Error, the weight of the optimal route is too large.");
+            }
+            for (int label = bestLabel; label >= 0; label = bestSearch.parents[label]) {
+                optimalRoute.add(snapshot.getTown(bestSearch.towns[label]));
+            }
+            Collections.reverse(optimalRoute);
+            weightOptimalRoute = weight;
+        }
+        // labels are not needed anymore
+        lengths = null;
+        times = null;
+        towns = null;
+        parents = null;
+    }
+
+    /**
+     * This method searches the routes whose first path is one of the given
+     * paths of the start town.
+     *
+     * @param pFirstPath
+     *            position of the first of the paths in the snapshot
+     * @param pEndPath
+     *            position after the last of the paths in the snapshot
+     * @param pBestWeight
+     *            weight of the best route found so far by any search, is
+     *            updated whenever a better route is found
+     * @return the best label of the destination, -1 if there is none
+     */
+    private int search(int pFirstPath, int pEndPath, AtomicLong pBestWeight) {
+        int capacity = 16;
+        lengths = new long[capacity];
+        times = new long[capacity];
+        towns = new int[capacity];
+        parents = new int[capacity];
+        heap = new int[capacity];
+        labelCount = 0;
+        heapSize = 0;
+        minTimes = new long[snapshot.getIdCapacity()];
+        Arrays.fill(minTimes, Long.MAX_VALUE);
+
+        int[] offsets = snapshot.getOffsets();
+        int[] targets = snapshot.getTargets();
+        int[] pathLengths = snapshot.getLengths();
+        int[] pathTimes = snapshot.getTimes();
+        int destinationId = destination.getId();
+        long bestWeight = Long.MAX_VALUE;
+        int bestLabel = -1;
+
+        // the start is visited first, then only the given paths are followed
+        addLabel(0, 0, start.getId(), -1);
+        minTimes[start.getId()] = times[poll()];
+        for (int i = pFirstPath; i < pEndPath; i++) {
+            addLabel(pathLengths[i], pathTimes[i], targets[i], 0);
+        }
+        while (heapSize > 0) {
+            int label = poll();
+            int town = towns[label];
+            if (times[label] >= minTimes[town]) {
+                // a visited label of this town is at least as short and as fast
+                continue;
+            }
+            minTimes[town] = times[label];
+            if (town == destinationId) {
+                // route is not extended beyond the destination
+                long weight = weight(lengths[label], times[label]);
+                if (weight < bestWeight || bestLabel < 0) {
+                    bestWeight = weight;
+                    bestLabel = label;
+                    improve(pBestWeight, weight);
+                }
+                continue;
+            }
+            for (int i = offsets[town]; i < offsets[town + 1]; i++) {
+                long length = lengths[label] + pathLengths[i];
+                long time = times[label] + pathTimes[i];
+                /*
+                 * only continue if the new route is not dominated by a visited
+                 * label (of the town or of the destination) and could still
+                 * be as good as the best route found so far by any search (a
+                 * weight that is too large is only kept while there is no
+                 * other route)
+                 */
+                if (time < minTimes[targets[i]] && time < minTimes[destinationId]
+                        && weight(length, time) <= pBestWeight.get()) {
+                    addLabel(length, time, targets[i], label);
+                }
+            }
+        }
+        // only the labels are needed to create the route
+        heap = null;
+        minTimes = null;
+        return bestLabel;
+    }
+
+    /**
+     * This method replaces the best weight by a smaller one.
+     *
+     * @param pBestWeight
+     *            weight of the best route found so far
+     * @param pWeight
+     *            weight of a new route
+     */
+    private static void improve(AtomicLong pBestWeight, long pWeight) {
+        long current = pBestWeight.get();
+        while (pWeight < current && !pBestWeight.compareAndSet(current, pWeight)) {
+            current = pBestWeight.get();
+        }
+    }
+
+    /**
+     * This method compares a label of the destination with a label of the
+     * destination of another search: first by weight, then like less.
+     *
+     * @param pLabel
+     *            label of this search
+     * @param pOther
+     *            the other search
+     * @param pOtherLabel
+     *            label of the other search
+     * @return true if pLabel is better than pOtherLabel
+     */
+    private boolean isBetter(int pLabel, ParetoSearch pOther, int pOtherLabel) {
+        long weight = weight(lengths[pLabel], times[pLabel]);
+        long otherWeight = weight(pOther.lengths[pOtherLabel], pOther.times[pOtherLabel]);
+        return weight < otherWeight || weight == otherWeight && compare(this, pLabel, pOther, pOtherLabel) < 0;
+    }
+
+    /**
+     * This method computes the weight of a route (length^2 + time^2).
+     *
+     * @param pLength
+     *            length of the route
+     * @param pTime
+     *            time of the route
+     * @return the weight, Long.MAX_VALUE if it does not fit into a long
+     */
+    static long weight(long pLength, long pTime) {
+        if (pLength > MAX_FACTOR || pTime > MAX_FACTOR
+                || pLength * pLength > Long.MAX_VALUE - pTime * pTime) {
+            return Long.MAX_VALUE;
+        }
+        return pLength * pLength + pTime * pTime;
+    }
+
+    /**
+     * This method creates a new label and puts it into the heap.
+     *
+     * @param pLength
+     *            length of the route of the label
+     * @param pTime
+     *            time of the route of the label
+     * @param pTown
+     *            id of the town the route ends at
+     * @param pParent
+     *            the label the route has been extended from
+     */
+    private void addLabel(long pLength, long pTime, int pTown, int pParent) {
+        if (labelCount == lengths.length) {
+            int capacity = 2 * lengths.length;
+            lengths = Arrays.copyOf(lengths, capacity);
+            times = Arrays.copyOf(times, capacity);
+            towns = Arrays.copyOf(towns, capacity);
+            parents = Arrays.copyOf(parents, capacity);
+            heap = Arrays.copyOf(heap, capacity);
+        }
+        lengths[labelCount] = pLength;
+        times[labelCount] = pTime;
+        towns[labelCount] = pTown;
+        parents[labelCount] = pParent;
+        // insert into heap and move up
+        int position = heapSize++;
+        while (position > 0 && less(labelCount, heap[(position - 1) / 2])) {
+            heap[position] = heap[(position - 1) / 2];
+            position = (position - 1) / 2;
+        }
+        heap[position] = labelCount;
+        labelCount++;
+    }
+
+    /**
+     * This method removes the shortest (then fastest) label from the heap.
+     *
+     * @return the removed label
+     */
+    private int poll() {
+        int min = heap[0];
+        int last = heap[--heapSize];
+        int position = 0;
+        while (2 * position + 1 < heapSize) {
+            int child = 2 * position + 1;
+            if (child + 1 < heapSize && less(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!less(heap[child], last)) {
+                break;
+            }
+            heap[position] = heap[child];
+            position = child;
+        }
+        heap[position] = last;
+        return min;
+    }
+
+    /**
+     * This method compares two labels: first by length, then by time. Labels
+     * with the same length and time are compared by their towns and then by
+     * the labels they have been extended from, so the order of the labels
+     * only depends on their routes.
+     *
+     * @param pLabel
+     *            one label
+     * @param pOther
+     *            the other label
+     * @return true if pLabel has to be visited before pOther
+     */
+    private boolean less(int pLabel, int pOther) {
+        return compare(this, pLabel, this, pOther) < 0;
+    }
+
+    /**
+     * This method compares two labels, which may belong to different searches
+     * of the same route (see less).
+     *
+     * @param pSearch
+     *            the search of one label
+     * @param pLabel
+     *            one label
+     * @param pOtherSearch
+     *            the search of the other label
+     * @param pOther
+     *            the other label
+     * @return a negative number if pLabel comes first, a positive number if
+     *         pOther comes first, 0 if both have the same route
+     */
+    private static int compare(ParetoSearch pSearch, int pLabel, ParetoSearch pOtherSearch, int pOther) {
+        int label = pLabel;
+        int other = pOther;
+        while (label >= 0 && other >= 0) {
+            if (pSearch.lengths[label] != pOtherSearch.lengths[other]) {
+                return pSearch.lengths[label] < pOtherSearch.lengths[other] ? -1 : 1;
+            }
+            if (pSearch.times[label] != pOtherSearch.times[other]) {
+                return pSearch.times[label] < pOtherSearch.times[other] ? -1 : 1;
+            }
+            if (pSearch.towns[label] != pOtherSearch.towns[other]) {
+                return pSearch.towns[label] < pOtherSearch.towns[other] ? -1 : 1;
+            }
+            label = pSearch.parents[label];
+            other = pOtherSearch.parents[other];
+        }
+        return label - other;
+    }
+
+    /**
+     * This method prints the optimal route. The route is printed in one line,
+     * the name of each town is separated by a whitespace.
+     *
+     * @throws IllegalInputException
+     *             if the weight of the optimal route does not fit into a long
+     */
+    public void printOptimalRoute() throws IllegalInputException {
+        // making sure the optimal route has already been found
+        if (!foundOptimalRoute) {
+            findOptimalRoute();
+        }
+        DepthFirstSearch.printRoute(optimalRoute);
+    }
+
+    /**
+     * This method returns the optimal route.
+     *
+     * @return the optimal route, empty if there is none
+     */
+    public ArrayList<Town> getOptimalRoute() {
+        return optimalRoute;
+    }
+
+    /**
+     * This method returns the weight of the optimal route.
+     *
+     * @return the weight of the optimal route, -1 if there is none
+     */
+    public Long getWeightOptimalRoute() {
+        return weightOptimalRoute;
+    }
+
+    /**
+     * This task searches the routes of one group (see findOptimalRoute).
+     */
+    private static class GroupTask extends RecursiveTask<Integer> {
+        /**
+         * for serialization
+         */
+        private static final long serialVersionUID = 1L;
+        /**
+         * the search of the group
+         */
+        private transient ParetoSearch search;
+        /**
+         * position of the first path of the group in the snapshot
+         */
+        private int firstPath;
+        /**
+         * position after the last path of the group in the snapshot
+         */
+        private int endPath;
+        /**
+         * weight of the best route found so far by any group
+         */
+        private AtomicLong bestWeight;
+
+        /**
+         * This creates a new task.
+         *
+         * @param pSearch
+         *            the search of the group
+         * @param pFirstPath
+         *            position of the first path of the group in the snapshot
+         * @param pEndPath
+         *            position after the last path of the group in the
+         *            snapshot
+         * @param pBestWeight
+         *            weight of the best route found so far by any group
+         */
+        GroupTask(ParetoSearch pSearch, int pFirstPath, int pEndPath, AtomicLong pBestWeight) {
+            search = pSearch;
+            firstPath = pFirstPath;
+            endPath = pEndPath;
+            bestWeight = pBestWeight;
+        }
+
+        @Override
+        protected Integer compute() {
+            return search.search(firstPath, endPath, bestWeight);
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package edu.kit.informatik.graphProcessing;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import edu.kit.informatik.Terminal;
+import edu.kit.informatik.userInterface.IllegalInputException;
+
+/**
+ * This class remembers the best routes that have been calculated, so that
+ * asking for the same towns again does not start a new search. The paths are
+ * undirected, so the weight between two towns is the same in both directions
+ * and is stored once for both. The route itself is stored for each direction
+ * in which it has been calculated (among several best routes, the searches do
+ * not necessarily find the same one in both directions).<br>
+ * For each criterion, the cache holds a limited number of town pairs; if
+ * they are too many, the pair of this criterion that has not been used for
+ * the longest time is dropped. All entries are dropped as soon as the graph
+ * has been modified. The numbers of hits and misses are counted, to find out
+ * whether the capacity is large enough.<br>
+ * Routes according to time or route are searched by the engine chosen when
+ * creating the cache, optimal routes by ParetoSearch.
+ *
+ * @author Johanna Thiemich
+ * @version 1.0
+ */
+public class RouteCache {
+    /**
+     * number of town pairs (for each criterion) stored by default
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * the graph the routes belong to
+     */
+    private Graph graph;
+    /**
+     * the algorithm that finds routes according to time or route
+     */
+    private Engine engine;
+    /**
+     * version of the graph the entries have been calculated for
+     */
+    private long version;
+    /**
+     * maximal number of town pairs for each criterion
+     */
+    private int capacity;
+    /**
+     * for each criterion: the entries, in the order in which they have been
+     * used (least recently used first)
+     */
+    private HashMap<Criterion, LinkedHashMap<String, Entry>> entries;
+    /**
+     * number of requests that have been answered out of the cache
+     */
+    private long hits;
+    /**
+     * number of requests that needed a new search
+     */
+    private long misses;
+
+    /**
+     * This creates a new, empty cache.
+     *
+     * @param pGraph
+     *            the graph the routes belong to
+     * @param pCapacity
+     *            maximal number of town pairs (for each criterion)
+     * @param pEngine
+     *            the algorithm that finds routes according to time or route
+     */
+    public RouteCache(Graph pGraph, int pCapacity, Engine pEngine) {
+        graph = pGraph;
+        engine = pEngine;
+        version = pGraph.getVersion();
+        capacity = pCapacity;
+        entries = new HashMap<Criterion, LinkedHashMap<String, Entry>>();
+    }
+
+    /**
+     * This method returns the entries of a criterion, creating the map if it
+     * does not exist yet.
+     *
+     * @param pCriterion
+     *            the criterion
+     * @return the entries of the criterion
+     */
+    private LinkedHashMap<String, Entry> entriesOf(Criterion pCriterion) {
+        LinkedHashMap<String, Entry> criterionEntries = entries.get(pCriterion);
+        if (criterionEntries == null) {
+            criterionEntries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+                /**
+                 * for serialization
+                 */
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry> pEldest) {
+                    return size() > capacity;
+                }
+            };
+            entries.put(pCriterion, criterionEntries);
+        }
+        return criterionEntries;
+    }
+
+    /**
+     * This method returns the weight of the best route between two towns.
+     *
+     * @param pStart
+     *            starting town
+     * @param pDestination
+     *            destination town
+     * @param pCriterion
+     *            route, time or optimal
+     * @return the weight of the best route (as printed by the command search)
+     * @throws ObjectNotFoundException
+     *             if one of the towns does not exist in the graph or is null
+     * @throws IllegalInputException
+     *             if the criterion is not route, time or optimal
+     */
+    public synchronized Long getWeight(Town pStart, Town pDestination, Criterion pCriterion)
+            throws ObjectNotFoundException, IllegalInputException {
+        Entry entry = findEntry(pStart, pDestination, pCriterion);
+        if (entry != null) {
+            hits++;
+            return entry.weight;
+        }
+        misses++;
+        return calculate(pStart, pDestination, pCriterion).weight;
+    }
+
+    /**
+     * This method returns the best route between two towns.
+     *
+     * @param pStart
+     *            starting town
+     * @param pDestination
+     *            destination town
+     * @param pCriterion
+     *            route, time or optimal
+     * @return the towns of the best route (as printed by the command route)
+     * @throws ObjectNotFoundException
+     *             if one of the towns does not exist in the graph or is null
+     * @throws IllegalInputException
+     *             if the criterion is not route, time or optimal
+     */
+    public synchronized ArrayList<Town> getRoute(Town pStart, Town pDestination, Criterion pCriterion)
+            throws ObjectNotFoundException, IllegalInputException {
+        Entry entry = findEntry(pStart, pDestination, pCriterion);
+        if (entry != null && entry.getRoute(pStart) != null) {
+            hits++;
+        } else {
+            misses++;
+            entry = calculate(pStart, pDestination, pCriterion);
+        }
+        return new ArrayList<Town>(entry.getRoute(pStart));
+    }
+
+    /**
+     * This method looks up the entry of two towns. All entries are dropped
+     * first if the graph has been modified.
+     *
+     * @param pStart
+     *            starting town
+     * @param pDestination
+     *            destination town
+     * @param pCriterion
+     *            the criterion
+     * @return the entry, null if there is none
+     */
+    private Entry findEntry(Town pStart, Town pDestination, Criterion pCriterion) {
+        if (version != graph.getVersion()) {
+            entries.clear();
+            version = graph.getVersion();
+        }
+        if (pStart == null || pDestination == null) {
+            return null;
+        }
+        return entriesOf(pCriterion).get(key(pStart, pDestination));
+    }
+
+    /**
+     * This method searches the best route between two towns and stores it.
+     *
+     * @param pStart
+     *            starting town
+     * @param pDestination
+     *            destination town
+     * @param pCriterion
+     *            route, time or optimal
+     * @return the entry of the two towns
+     * @throws ObjectNotFoundException
+     *             if one of the towns does not exist in the graph or is null
+     * @throws IllegalInputException
+     *             if the criterion is not route, time or optimal
+     */
+    private Entry calculate(Town pStart, Town pDestination, Criterion pCriterion)
+            throws ObjectNotFoundException, IllegalInputException {
+        Long weight;
+        ArrayList<Town> route;
+        if (Criterion.ROUTE.equals(pCriterion) || Criterion.TIME.equals(pCriterion)) {
+            ShortestPathAlgorithm algorithm = engine.create(graph, pStart, pDestination);
+            algorithm.calculate(pCriterion);
+            weight = algorithm.getWeight();
+            route = algorithm.getRoute();
+        } else if (Criterion.OPTIMAL.equals(pCriterion)) {
+            ParetoSearch search = new ParetoSearch(graph, pStart, pDestination);
+            search.findOptimalRoute();
+            weight = search.getWeightOptimalRoute();
+            route = search.getOptimalRoute();
+        } else { // invalid criterion
+            throw new IllegalInputException("Error, invalid criterion. Please choose 'time', 'route' or 'optimal'.");
+        }
+        String key = key(pStart, pDestination);
+        Entry entry = entriesOf(pCriterion).get(key);
+        if (entry == null) {
+            entry = new Entry(weight);
+            entriesOf(pCriterion).put(key, entry);
+        }
+        entry.setRoute(pStart, route);
+        return entry;
+    }
+
+    /**
+     * This method creates the key of two towns. The key does not depend on
+     * the order of the towns.
+     *
+     * @param pStart
+     *            one town
+     * @param pDestination
+     *            the other town
+     * @return the key
+     */
+    private String key(Town pStart, Town pDestination) {
+        // the names of towns are stored in lower case
+        String first = pStart.getName();
+        String second = pDestination.getName();
+        if (first.compareTo(second) > 0) {
+            String swap = first;
+            first = second;
+            second = swap;
+        }
+        return first + ";" + second;
+    }
+
+    /**
+     * This method returns the number of requests that have been answered out
+     * of the cache.
+     *
+     * @return the number of hits
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * This method returns the number of requests that needed a new search.
+     *
+     * @return the number of misses
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * This method returns the number of town pairs currently stored (for all
+     * criteria together).
+     *
+     * @return the number of entries
+     */
+    public synchronized int size() {
+        int size = 0;
+        for (LinkedHashMap<String, Entry> criterionEntries : entries.values()) {
+            size += criterionEntries.size();
+        }
+        return size;
+    }
+
+    /**
+     * This method prints the statistics of this cache in one line: the number
+     * of hits, misses and stored town pairs, separated by semicolons.
+     */
+    public synchronized void printStatistics() {
+        Terminal.printLine(hits + ";" + misses + ";" + size());
+    }
+
+    /**
+     * The weight and the routes of one pair of towns.
+     */
+    private static class Entry {
+        /**
+         * weight of the best route (the same in both directions)
+         */
+        private Long weight;
+        /**
+         * the town the route "forward" starts at
+         */
+        private Town forwardStart;
+        /**
+         * route starting at forwardStart, null if it has not been calculated
+         */
+        private ArrayList<Town> forward;
+        /**
+         * route ending at forwardStart, null if it has not been calculated
+         */
+        private ArrayList<Town> backward;
+
+        /**
+         * This creates a new entry without routes.
+         *
+         * @param pWeight
+         *            weight of the best route
+         */
+        Entry(Long pWeight) {
+            weight = pWeight;
+        }
+
+        /**
+         * This method stores the route of one direction.
+         *
+         * @param pStart
+         *            starting town of the route
+         * @param pRoute
+         *            the route
+         */
+        void setRoute(Town pStart, ArrayList<Town> pRoute) {
+            if (forwardStart == null) {
+                forwardStart = pStart;
+            }
+            if (forwardStart.equals(pStart)) {
+                forward = pRoute;
+            } else {
+                backward = pRoute;
+            }
+        }
+
+        /**
+         * This method returns the route of one direction.
+         *
+         * @param pStart
+         *            starting town of the route
+         * @return the route, null if it has not been calculated
+         */
+        ArrayList<Town> getRoute(Town pStart) {
+            return forwardStart == null || forwardStart.equals(pStart) ? forward : backward;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package edu.kit.informatik.graphProcessing;
+
+import java.util.ArrayList;
+
+/**
+ * A route sink receives the routes found by DepthFirstSearch one after
+ * another, as soon as they have been found. So routes can be printed or
+ * counted without keeping all of them in memory.
+ *
+ * @author Johanna Thiemich
+ * @version 1.0
+ */
+public interface RouteSink {
+    /**
+     * This method is invoked for each route that has been found.
+     *
+     * @param pRoute
+     *            the route, from start to destination; the list is not used by
+     *            the search anymore and may be kept
+     * @return true if the search shall continue, false if no more routes are
+     *         needed
+     */
+    boolean accept(ArrayList<Town> pRoute);
+}
@@ -0,0 +1,264 @@
+package edu.kit.informatik.graphProcessing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import edu.kit.informatik.userInterface.IllegalInputException;
+
+/**
+ * This class stores many routes in a prefix tree (trie): routes beginning with
+ * the same towns share the nodes of these towns, so each route only needs new
+ * nodes for the part in which it differs from the routes added before.<br>
+ * Each node stores its town, its parent and the length and time of the route
+ * from the first town up to the node, so the weight of each route is known
+ * without looking at its towns. The routes are returned in the order in which
+ * they have been added.
+ *
+ * @author Johanna Thiemich
+ * @version 1.0
+ */
+public class RouteTrie implements Iterable<ArrayList<Town>> {
+    /**
+     * the snapshot of the graph the routes belong to
+     */
+    private GraphSnapshot snapshot;
+    /**
+     * for each node: id of its town
+     */
+    private int[] towns;
+    /**
+     * for each node: its parent, -1 for the nodes of the first towns
+     */
+    private int[] parents;
+    /**
+     * for each node: the child added last, -1 if there is none
+     */
+    private int[] lastChildren;
+    /**
+     * for each node: the child of its parent added before it, -1 if there is
+     * none
+     */
+    private int[] previousSiblings;
+    /**
+     * for each node: length of the route up to the node
+     */
+    private long[] lengths;
+    /**
+     * for each node: time of the route up to the node
+     */
+    private long[] times;
+    /**
+     * number of nodes
+     */
+    private int nodeCount;
+    /**
+     * the node added last among the nodes of the first towns, -1 if there is
+     * none
+     */
+    private int lastRoot;
+    /**
+     * for each route: the node of its last town
+     */
+    private int[] routeEnds;
+    /**
+     * number of routes
+     */
+    private int routeCount;
+
+    /**
+     * This creates a new, empty trie.
+     *
+     * @param pSnapshot
+     *            the snapshot of the graph the routes belong to
+     */
+    public RouteTrie(GraphSnapshot pSnapshot) {
+        snapshot = pSnapshot;
+        int capacity = 16;
+        towns = new int[capacity];
+        parents = new int[capacity];
+        lastChildren = new int[capacity];
+        previousSiblings = new int[capacity];
+        lengths = new long[capacity];
+        times = new long[capacity];
+        routeEnds = new int[capacity];
+        lastRoot = -1;
+    }
+
+    /**
+     * This method adds a route. Consecutive towns of the route must be
+     * neighbors in the graph.
+     *
+     * @param pRoute
+     *            the towns of the route
+     */
+    public void add(ArrayList<Town> pRoute) {
+        int node = -1;
+        for (Town town : pRoute) {
+            node = child(node, town.getId());
+        }
+        if (routeCount == routeEnds.length) {
+            routeEnds = Arrays.copyOf(routeEnds, 2 * routeCount);
+        }
+        routeEnds[routeCount++] = node;
+    }
+
+    /**
+     * This method finds the child of a node belonging to a town and creates it
+     * if it does not exist yet. Since routes are usually added in the order of
+     * a depth first search, the child added last is looked at first.
+     *
+     * @param pNode
+     *            the node, -1 for the nodes of the first towns
+     * @param pTown
+     *            id of the town
+     * @return the child node
+     */
+    private int child(int pNode, int pTown) {
+        int child = pNode < 0 ? lastRoot : lastChildren[pNode];
+        while (child >= 0) {
+            if (towns[child] == pTown) {
+                return child;
+            }
+            child = previousSiblings[child];
+        }
+        // create a new node
+        if (nodeCount == towns.length) {
+            int capacity = 2 * nodeCount;
+            towns = Arrays.copyOf(towns, capacity);
+            parents = Arrays.copyOf(parents, capacity);
+            lastChildren = Arrays.copyOf(lastChildren, capacity);
+            previousSiblings = Arrays.copyOf(previousSiblings, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            times = Arrays.copyOf(times, capacity);
+        }
+        child = nodeCount++;
+        towns[child] = pTown;
+        parents[child] = pNode;
+        lastChildren[child] = -1;
+        if (pNode < 0) {
+            previousSiblings[child] = lastRoot;
+            lastRoot = child;
+        } else {
+            previousSiblings[child] = lastChildren[pNode];
+            lastChildren[pNode] = child;
+            // weight of the path from the town of the parent to this town
+            int[] offsets = snapshot.getOffsets();
+            int[] targets = snapshot.getTargets();
+            int from = towns[pNode];
+            for (int i = offsets[from]; i < offsets[from + 1]; i++) {
+                if (targets[i] == pTown) {
+                    lengths[child] = lengths[pNode] + snapshot.getLengths()[i];
+                    times[child] = times[pNode] + snapshot.getTimes()[i];
+                    break;
+                }
+            }
+        }
+        return child;
+    }
+
+    /**
+     * This method returns the number of routes.
+     *
+     * @return the number of routes
+     */
+    public int size() {
+        return routeCount;
+    }
+
+    /**
+     * This method returns the number of nodes, that means the number of towns
+     * that are actually stored for all routes.
+     *
+     * @return the number of nodes
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * This method returns one route.
+     *
+     * @param pIndex
+     *            the number of the route (in the order in which the routes
+     *            have been added)
+     * @return the towns of the route
+     */
+    public ArrayList<Town> getRoute(int pIndex) {
+        if (pIndex < 0 || pIndex >= routeCount) {
+            throw new IndexOutOfBoundsException("Error, there is no route " + pIndex + ".");
+        }
+        ArrayList<Town> route = new ArrayList<Town>();
+        for (int node = routeEnds[pIndex]; node >= 0; node = parents[node]) {
+            route.add(snapshot.getTown(towns[node]));
+        }
+        // the towns have been collected from the end to the beginning
+        Collections.reverse(route);
+        return route;
+    }
+
+    /**
+     * This method returns the weight of one route according to a criterion.
+     *
+     * @param pIndex
+     *            the number of the route (in the order in which the routes
+     *            have been added)
+     * @param pCriterion
+     *            route (length), time or optimal (length + time)
+     * @return the weight of the route, Long.MAX_VALUE if the weight of the
+     *         optimal route does not fit into a long
+     * @throws IllegalInputException
+     *             if the criterion is all
+     */
+    public long getWeight(int pIndex, Criterion pCriterion) throws IllegalInputException {
+        if (pIndex < 0 || pIndex >= routeCount) {
+            throw new IndexOutOfBoundsException("Error, there is no route " + pIndex + ".");
+        }
+        int node = routeEnds[pIndex];
+        if (Criterion.ROUTE.equals(pCriterion)) {
+            return lengths[node];
+        } else if (Criterion.TIME.equals(pCriterion)) {
+            return times[node];
+        } else if (Criterion.OPTIMAL.equals(pCriterion)) {
+            return ParetoSearch.weight(lengths[node], times[node]);
+        } else { // invalid criterion
+            throw new IllegalInputException("Error, invalid criterion. Please choose 'time', 'route' or 'optimal'.");
+        }
+    }
+
+    /**
+     * This method returns an iterator over all routes, in the order in which
+     * they have been added.
+     *
+     * @return the iterator
+     */
+    @Override
+    public Iterator<ArrayList<Town>> iterator() {
+        return new Iterator<ArrayList<Town>>() {
+            /**
+             * number of the next route
+             */
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < routeCount;
+            }
+
+            @Override
+            public ArrayList<Town> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return getRoute(next++);
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+}
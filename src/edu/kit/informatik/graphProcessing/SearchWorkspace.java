@@ -0,0 +1,251 @@
+package edu.kit.informatik.graphProcessing;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * This class holds the data of one shortest path search (marks, predecessors,
+ * visited towns and the heap of reached towns), indexed by the ids of the
+ * towns.<br>
+ * Workspaces are reused: each thread owns a pool of workspaces, a search takes
+ * one out of the pool (acquire) and gives it back when it is done (release).
+ * Instead of resetting all arrays before a new search, the workspace counts
+ * the searches (epoch). An entry is only valid if it has been written during
+ * the current search, so starting a new search costs nothing.
+ *
+ * @author Johanna Thiemich
+ * @version 1.0
+ */
+public final class SearchWorkspace {
+    /**
+     * for each thread: the workspaces that are currently not in use
+     */
+    private static final ThreadLocal<ArrayDeque<SearchWorkspace>> POOL
+        = new ThreadLocal<ArrayDeque<SearchWorkspace>>() {
+        @Override
+        protected ArrayDeque<SearchWorkspace> initialValue() {
+            return new ArrayDeque<SearchWorkspace>();
+        }
+    };
+
+    /**
+     * number of the current search
+     */
+    private int epoch;
+    /**
+     * for each town id: the mark (distance from start) of the town; marks are
+     * longs, since the weight of a route may exceed the range of an int even
+     * if each path fits into it
+     */
+    private long[] marks;
+    /**
+     * for each town id: id of the predecessor of the town, -1 if there is
+     * none
+     */
+    private int[] predecessors;
+    /**
+     * for each town id: the epoch in which mark and predecessor were set
+     */
+    private int[] reached;
+    /**
+     * for each town id: the epoch in which the town has been visited
+     */
+    private int[] visited;
+    /**
+     * the towns that have been reached but not visited yet
+     */
+    private IndexedHeap heap;
+
+    /**
+     * This creates a new workspace.
+     *
+     * @param pCapacity
+     *            number of town ids the workspace has to be able to hold
+     */
+    private SearchWorkspace(int pCapacity) {
+        allocate(pCapacity);
+    }
+
+    /**
+     * This method takes a workspace out of the pool of the current thread (or
+     * creates a new one) and prepares it for a new search.
+     *
+     * @param pCapacity
+     *            number of town ids the workspace has to be able to hold
+     * @return a workspace that is ready for a new search
+     */
+    public static SearchWorkspace acquire(int pCapacity) {
+        SearchWorkspace workspace = POOL.get().poll();
+        if (workspace == null) {
+            workspace = new SearchWorkspace(pCapacity);
+        } else if (workspace.marks.length < pCapacity) {
+            // graph has grown since last use
+            workspace.allocate(pCapacity);
+        }
+        workspace.begin();
+        return workspace;
+    }
+
+    /**
+     * This method creates a workspace that does not belong to any pool, for a
+     * search that is kept for a long time (see ShortestPathTree). It is ready
+     * for a new search and must not be released.
+     *
+     * @param pCapacity
+     *            number of town ids the workspace has to be able to hold
+     * @return the new workspace
+     */
+    static SearchWorkspace create(int pCapacity) {
+        SearchWorkspace workspace = new SearchWorkspace(pCapacity);
+        workspace.begin();
+        return workspace;
+    }
+
+    /**
+     * This method gives the workspace back to the pool of the current thread.
+     * The workspace must not be used afterwards.
+     */
+    public void release() {
+        POOL.get().push(this);
+    }
+
+    /**
+     * This method creates new, empty arrays.
+     *
+     * @param pCapacity
+     *            number of town ids the workspace has to be able to hold
+     */
+    private void allocate(int pCapacity) {
+        // leave some room so a growing graph does not cause new arrays each time
+        int capacity = pCapacity + pCapacity / 4 + 1;
+        marks = new long[capacity];
+        predecessors = new int[capacity];
+        reached = new int[capacity];
+        visited = new int[capacity];
+        heap = new IndexedHeap(capacity);
+        epoch = 0;
+    }
+
+    /**
+     * This method starts a new search, all entries of the last search become
+     * invalid.
+     */
+    private void begin() {
+        epoch++;
+        if (epoch == Integer.MAX_VALUE) {
+            // very rare: counter overflow --> really reset everything
+            Arrays.fill(reached, 0);
+            Arrays.fill(visited, 0);
+            epoch = 1;
+        }
+        heap.clear();
+    }
+
+    /**
+     * This method returns the mark of a town.
+     *
+     * @param pId
+     *            id of the town
+     * @return the mark of the town, Long.MAX_VALUE if the town has not been
+     *         reached yet
+     */
+    public long getMark(int pId) {
+        if (reached[pId] != epoch) {
+            return Long.MAX_VALUE;
+        }
+        return marks[pId];
+    }
+
+    /**
+     * This method returns the predecessor of a town.
+     *
+     * @param pId
+     *            id of the town
+     * @return id of the predecessor, -1 if the town does not have one
+     */
+    public int getPredecessor(int pId) {
+        if (reached[pId] != epoch) {
+            return -1;
+        }
+        return predecessors[pId];
+    }
+
+    /**
+     * This method sets mark and predecessor of a town and puts the town into
+     * the heap (or decreases its key).
+     *
+     * @param pId
+     *            id of the town
+     * @param pMark
+     *            new mark of the town
+     * @param pPredecessor
+     *            id of the predecessor, -1 if there is none
+     */
+    public void reach(int pId, long pMark, int pPredecessor) {
+        reach(pId, pMark, pPredecessor, pMark);
+    }
+
+    /**
+     * This method sets mark and predecessor of a town and puts the town into
+     * the heap with a key that differs from the mark (e.g. mark plus an
+     * estimation of the remaining distance).
+     *
+     * @param pId
+     *            id of the town
+     * @param pMark
+     *            new mark of the town
+     * @param pPredecessor
+     *            id of the predecessor, -1 if there is none
+     * @param pKey
+     *            key of the town in the heap
+     */
+    public void reach(int pId, long pMark, int pPredecessor, long pKey) {
+        reached[pId] = epoch;
+        marks[pId] = pMark;
+        predecessors[pId] = pPredecessor;
+        heap.insertOrDecrease(pId, pKey);
+    }
+
+    /**
+     * This method checks whether a town has already been visited.
+     *
+     * @param pId
+     *            id of the town
+     * @return true if the town has been visited in the current search
+     */
+    public boolean isVisited(int pId) {
+        return visited[pId] == epoch;
+    }
+
+    /**
+     * This method removes the town with the minimal mark from the heap and
+     * marks it as visited.
+     *
+     * @return id of the visited town
+     */
+    public int visitNext() {
+        int id = heap.poll();
+        visited[id] = epoch;
+        return id;
+    }
+
+    /**
+     * This method checks whether there are reached towns left that have not
+     * been visited yet.
+     *
+     * @return true if there are no such towns left
+     */
+    public boolean isHeapEmpty() {
+        return heap.isEmpty();
+    }
+
+    /**
+     * This method returns the minimal mark of the reached, not visited towns
+     * (the minimal key, if towns have been reached with a key).
+     *
+     * @return the minimal mark in the heap
+     */
+    public long peekMark() {
+        return heap.peekKey();
+    }
+}
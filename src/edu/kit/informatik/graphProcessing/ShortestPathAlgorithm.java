@@ -0,0 +1,169 @@
+package edu.kit.informatik.graphProcessing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+import edu.kit.informatik.userInterface.IllegalInputException;
+
+/**
+ * This class is the base of all algorithms that find the shortest or fastest
+ * route between two towns in a graph (depending on the criterion chosen in the
+ * calculate method). It checks the towns and saves the found route and its
+ * weight.
+ *
+ * @author Johanna Thiemich
+ * @version 1.0
+ */
+public abstract class ShortestPathAlgorithm {
+    /**
+     * compact copy of the graph in which is being searched
+     */
+    private GraphSnapshot snapshot;
+    /**
+     * start town of route to be found
+     */
+    private Town start;
+    /**
+     * destination town of route to be found
+     */
+    private Town destination;
+    /**
+     * the found shortest/fastest route
+     */
+    private ArrayList<Town> route;
+    /**
+     * weight of the found route Criterion time: weight in minutes Criterion
+     * route: weight in kilometers (a long, since it may exceed the range of an
+     * int even if each path fits into it)
+     */
+    private Long weight;
+
+    /**
+     * This creates a new algorithm object.
+     *
+     * @param pGraph
+     *            the graph that is being searched in
+     * @param pStart
+     *            start town of the route to be found
+     * @param pDestination
+     *            destination town of the route to be found
+     * @throws ObjectNotFoundException
+     *             if start town (pStart) or destination town (pDestination) do
+     *             not exist in given graph or are null
+     */
+    protected ShortestPathAlgorithm(Graph pGraph, Town pStart, Town pDestination) throws ObjectNotFoundException {
+        // check: valid input towns?
+        if (pGraph.containsTown(pStart) && pGraph.containsTown(pDestination)) {
+            snapshot = pGraph.getSnapshot();
+            start = pGraph.findTown(pStart.getName());
+            destination = pGraph.findTown(pDestination.getName());
+            route = new ArrayList<Town>();
+            weight = 0L;
+        } else {
+            // towns are not valid
+            throw new ObjectNotFoundException("Error, this graph does not contain one or both of the towns.");
+        }
+    }
+
+    /**
+     * This method executes the actual algorithm and saves the found route. In
+     * case of the criterion being time, it finds the fastest route, if the<br>
+     * criterion is route it finds the shortest route.
+     *
+     * @param pCriterion
+     *            criterion that is going to be applied in the calculation
+     * @throws IllegalInputException
+     *             if the criterion is invalid
+     */
+    public abstract void calculate(Criterion pCriterion) throws IllegalInputException;
+
+    /**
+     * This method saves the result of the calculation.
+     *
+     * @param pRoute
+     *            the found route from start to destination; if no route has
+     *            been found, it only contains the destination
+     * @param pWeight
+     *            the weight of the found route
+     */
+    protected void setResult(ArrayList<Town> pRoute, long pWeight) {
+        route = pRoute;
+        weight = pWeight;
+    }
+
+    /**
+     * This method creates a route by tracing back the predecessors saved in a
+     * workspace.
+     *
+     * @param pWorkspace
+     *            the workspace containing the predecessors
+     * @param pLast
+     *            id of the town the route ends with
+     * @return the route from the town the search started at to the town with
+     *         id pLast
+     */
+    protected ArrayList<Town> traceBack(SearchWorkspace pWorkspace, int pLast) {
+        ArrayList<Town> tracedRoute = new ArrayList<Town>();
+        int town = pLast;
+        while (town >= 0) {
+            tracedRoute.add(snapshot.getTown(town));
+            town = pWorkspace.getPredecessor(town);
+        }
+        // route is reversed
+        Collections.reverse(tracedRoute);
+        return tracedRoute;
+    }
+
+    /**
+     * This method returns the snapshot of the graph that is being searched.
+     *
+     * @return compact copy of the graph
+     */
+    protected GraphSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * This method returns the start town of the route.
+     *
+     * @return the start town
+     */
+    protected Town getStart() {
+        return start;
+    }
+
+    /**
+     * This method returns the destination town of the route.
+     *
+     * @return the destination town
+     */
+    protected Town getDestination() {
+        return destination;
+    }
+
+    /**
+     * This method returns the weight of the found route.
+     *
+     * @return weight of this calculated route
+     */
+    public Long getWeight() {
+        if (route.size() == 1) {
+            /*
+             * route only contains destination --> route could not be found -->
+             * weight is set to zero
+             */
+            weight = 0L;
+        }
+        return weight;
+    }
+
+    /**
+     * This method returns the found route.
+     *
+     * @return the calculated route
+     */
+    public ArrayList<Town> getRoute() {
+        return route;
+    }
+
+}
@@ -0,0 +1,143 @@
+package edu.kit.informatik.graphProcessing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+import edu.kit.informatik.userInterface.IllegalInputException;
+
+/**
+ * This class holds the search of the Dijkstra Algorithm from one starting
+ * town, so that the shortest routes to several destinations are found with
+ * one search: the search stops as soon as the requested destination has been
+ * visited and is resumed when a destination is requested that has not been
+ * visited yet. Routes to towns that have already been visited are read from
+ * the predecessors directly.<br>
+ * The search runs exactly like a new search to each destination, so the
+ * routes are the same as the ones a new search would find. The tree belongs
+ * to one version of the graph and must not be used after the graph has been
+ * modified (see Graph.getShortestPathTree).
+ *
+ * @author Johanna Thiemich
+ * @version 1.0
+ */
+public class ShortestPathTree {
+    /**
+     * compact copy of the graph in which is being searched
+     */
+    private GraphSnapshot snapshot;
+    /**
+     * weight of each path in the snapshot (time or length)
+     */
+    private int[] weights;
+    /**
+     * marks, predecessors and visited towns of the search; the workspace
+     * belongs to this tree and is not taken from a pool
+     */
+    private SearchWorkspace workspace;
+    /**
+     * the town visited last, whose neighbors have not been updated yet; -1 if
+     * there is none
+     */
+    private int pending;
+
+    /**
+     * This creates a new tree; nothing has been searched yet.
+     *
+     * @param pSnapshot
+     *            snapshot of the graph
+     * @param pStart
+     *            id of the starting town
+     * @param pCriterion
+     *            route (shortest routes) or time (fastest routes)
+     * @throws IllegalInputException
+     *             if the criterion is invalid
+     */
+    public ShortestPathTree(GraphSnapshot pSnapshot, int pStart, Criterion pCriterion)
+            throws IllegalInputException {
+        snapshot = pSnapshot;
+        weights = pSnapshot.getWeights(pCriterion);
+        workspace = SearchWorkspace.create(pSnapshot.getIdCapacity());
+        // only the start has been reached so far
+        workspace.reach(pStart, 0, -1);
+        pending = -1;
+    }
+
+    /**
+     * This method continues the search until a town has been visited (or all
+     * reachable towns have been visited).
+     *
+     * @param pDestination
+     *            id of the town
+     */
+    public synchronized void searchUntil(int pDestination) {
+        while (!workspace.isVisited(pDestination)) {
+            if (pending >= 0) {
+                // the search stopped at this town last time
+                findBestNeighbour(pending);
+                pending = -1;
+            }
+            if (workspace.isHeapEmpty()) {
+                // destination cannot be reached
+                break;
+            }
+            // find town with minimal distance (mark), it now has been visited
+            pending = workspace.visitNext();
+        }
+    }
+
+    /**
+     * This method updates the marks of all neighbors of a town which can be
+     * reached faster/shorter via this town.
+     *
+     * @param pCurrentTown
+     *            id of the town of which the neighbors are to be updated
+     */
+    private void findBestNeighbour(int pCurrentTown) {
+        int[] offsets = snapshot.getOffsets();
+        int[] targets = snapshot.getTargets();
+        long currentMark = workspace.getMark(pCurrentTown);
+        for (int i = offsets[pCurrentTown]; i < offsets[pCurrentTown + 1]; i++) {
+            int town = targets[i];
+            if (!workspace.isVisited(town)) {
+                long newMark = currentMark + weights[i];
+                if (newMark < workspace.getMark(town)) {
+                    workspace.reach(town, newMark, pCurrentTown);
+                }
+            }
+        }
+    }
+
+    /**
+     * This method returns the weight of the best route to a town. The town
+     * has to be searched (searchUntil) first.
+     *
+     * @param pDestination
+     *            id of the town
+     * @return the weight of the route, Long.MAX_VALUE if the town cannot be
+     *         reached
+     */
+    public synchronized long getWeight(int pDestination) {
+        return workspace.getMark(pDestination);
+    }
+
+    /**
+     * This method returns the best route to a town. The town has to be
+     * searched (searchUntil) first.
+     *
+     * @param pDestination
+     *            id of the town
+     * @return the route from the start to the town; if the town cannot be
+     *         reached, the route only contains the town
+     */
+    public synchronized ArrayList<Town> getRoute(int pDestination) {
+        ArrayList<Town> route = new ArrayList<Town>();
+        int town = pDestination;
+        while (town >= 0) {
+            route.add(snapshot.getTown(town));
+            town = workspace.getPredecessor(town);
+        }
+        // route is reversed
+        Collections.reverse(route);
+        return route;
+    }
+}
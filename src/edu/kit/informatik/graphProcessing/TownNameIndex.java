@@ -0,0 +1,190 @@
+package edu.kit.informatik.graphProcessing;
+
+/**
+ * This class finds towns by the bytes of their names (ignoring large and lower
+ * case), so that the names in a file can be looked up without creating a
+ * string for each of them. The index is a hash table with open addressing;
+ * names are expected to consist of ASCII letters and hyphens.
+ *
+ * @author Johanna Thiemich
+ * @version 1.0
+ */
+public class TownNameIndex {
+    /**
+     * for each slot: the lower case name of the town, null if the slot is
+     * empty
+     */
+    private byte[][] names;
+    /**
+     * for each slot: the town
+     */
+    private Town[] towns;
+    /**
+     * number of towns in the index
+     */
+    private int size;
+
+    /**
+     * This creates a new, empty index.
+     */
+    public TownNameIndex() {
+        names = new byte[16][];
+        towns = new Town[16];
+    }
+
+    /**
+     * This method adds a town. The name of the town must not be in the index
+     * already.
+     *
+     * @param pTown
+     *            the town
+     */
+    public void add(Town pTown) {
+        if (2 * (size + 1) > names.length) {
+            // keep the table at most half full
+            byte[][] oldNames = names;
+            Town[] oldTowns = towns;
+            names = new byte[2 * oldNames.length][];
+            towns = new Town[2 * oldNames.length];
+            for (int i = 0; i < oldNames.length; i++) {
+                if (oldNames[i] != null) {
+                    insert(oldNames[i], oldTowns[i]);
+                }
+            }
+        }
+        String name = pTown.getName();
+        byte[] bytes = new byte[name.length()];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = lowerCase((byte) name.charAt(i));
+        }
+        insert(bytes, pTown);
+        size++;
+    }
+
+    /**
+     * This method puts a name into the first free slot.
+     *
+     * @param pName
+     *            lower case name of the town
+     * @param pTown
+     *            the town
+     */
+    private void insert(byte[] pName, Town pTown) {
+        int mask = names.length - 1;
+        int slot = hash(pName, 0, pName.length) & mask;
+        while (names[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        names[slot] = pName;
+        towns[slot] = pTown;
+    }
+
+    /**
+     * This method finds the town with a certain name.
+     *
+     * @param pBytes
+     *            buffer containing the name
+     * @param pStart
+     *            position of the first byte of the name
+     * @param pEnd
+     *            position after the last byte of the name
+     * @return the town, null if there is no town with this name
+     */
+    public Town find(byte[] pBytes, int pStart, int pEnd) {
+        int mask = names.length - 1;
+        int slot = hash(pBytes, pStart, pEnd) & mask;
+        while (names[slot] != null) {
+            if (equalNames(names[slot], pBytes, pStart, pEnd)) {
+                return towns[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * This method compares a name in the index with a name in a buffer.
+     *
+     * @param pName
+     *            lower case name in the index
+     * @param pBytes
+     *            buffer containing the other name
+     * @param pStart
+     *            position of the first byte of the other name
+     * @param pEnd
+     *            position after the last byte of the other name
+     * @return true if the names are equal (ignoring large and lower case)
+     */
+    private static boolean equalNames(byte[] pName, byte[] pBytes, int pStart, int pEnd) {
+        if (pName.length != pEnd - pStart) {
+            return false;
+        }
+        for (int i = 0; i < pName.length; i++) {
+            if (pName[i] != lowerCase(pBytes[pStart + i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * This method computes the hash code of a name (ignoring large and lower
+     * case).
+     *
+     * @param pBytes
+     *            buffer containing the name
+     * @param pStart
+     *            position of the first byte of the name
+     * @param pEnd
+     *            position after the last byte of the name
+     * @return the hash code
+     */
+    private static int hash(byte[] pBytes, int pStart, int pEnd) {
+        int hash = 0;
+        for (int i = pStart; i < pEnd; i++) {
+            hash = 31 * hash + lowerCase(pBytes[i]);
+        }
+        // spread the higher bits, the table only uses the lower ones
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * This method converts an ASCII letter to lower case.
+     *
+     * @param pByte
+     *            the byte
+     * @return the lower case letter, the byte itself if it is no upper case
+     *         letter
+     */
+    private static byte lowerCase(byte pByte) {
+        return pByte >= 'A' && pByte <= 'Z' ? (byte) (pByte + ('a' - 'A')) : pByte;
+    }
+
+    /**
+     * This method creates the lower case name out of some bytes.
+     *
+     * @param pBytes
+     *            buffer containing the name (ASCII)
+     * @param pStart
+     *            position of the first byte of the name
+     * @param pEnd
+     *            position after the last byte of the name
+     * @return the lower case name
+     */
+    public static String toLowerCase(byte[] pBytes, int pStart, int pEnd) {
+        char[] name = new char[pEnd - pStart];
+        for (int i = 0; i < name.length; i++) {
+            name[i] = (char) lowerCase(pBytes[pStart + i]);
+        }
+        return new String(name);
+    }
+
+    /**
+     * This method returns the number of towns in the index.
+     *
+     * @return the number of towns
+     */
+    public int size() {
+        return size;
+    }
+}
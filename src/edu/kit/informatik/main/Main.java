@@ -1,50 +1,147 @@
-package edu.kit.informatik.main;
-
-import edu.kit.informatik.Terminal;
-import edu.kit.informatik.graphProcessing.Graph;
-import edu.kit.informatik.graphProcessing.GraphBuilder;
-import edu.kit.informatik.graphProcessing.IncorrectInputFileException;
-import edu.kit.informatik.userInterface.UserInteraction;
-
-/**
- * This class contains the main method, invoking the main methods for running
- * the program.
- * 
- * @author Johanna Thiemich
- * @version 1.0
- */
-public final class Main {
-
-    /**
-     * This class has a private constructor to avoid instantiation
-     */
-    private Main() {
-        // intentionally left blank 
-    }
-
-    /**
-     * The main method runs the program.
-     * 
-     * @param args
-     *            contains the path to the file that contains the serialized
-     *            graph
-     */
-    public static void main(String[] args) {
-        // create a new graph out of the serialized text version
-        if (args.length != 0) {
-            GraphBuilder graphBuilder = new GraphBuilder(args[0]);
-            try {
-                Graph graph = graphBuilder.finishedGraph();
-                UserInteraction act = new UserInteraction(graph);
-                // starts interactive sequence
-                act.interactiveDialog();
-            } catch (IncorrectInputFileException e) {
-                // in case creating the graph fails (incorrect input file)
-                Terminal.printLine(e.getMessage());
-            }
-
-        } else {
-            Terminal.printLine("Error, a path to a *.txt file has to be provided. Path has not been found.");
-        }
-    }
-}
+package edu.kit.informatik.main;
+
+import java.io.IOException;
+
+import edu.kit.informatik.Terminal;
+import edu.kit.informatik.graphProcessing.CsvImporter;
+import edu.kit.informatik.graphProcessing.DimacsImporter;
+import edu.kit.informatik.graphProcessing.Engine;
+import edu.kit.informatik.graphProcessing.Graph;
+import edu.kit.informatik.graphProcessing.GraphBuilder;
+import edu.kit.informatik.graphProcessing.GraphSnapshotFile;
+import edu.kit.informatik.graphProcessing.IncorrectInputFileException;
+import edu.kit.informatik.userInterface.IllegalInputException;
+import edu.kit.informatik.userInterface.UserInteraction;
+
+/**
+ * This class contains the main method, invoking the main methods for running
+ * the program.
+ * 
+ * @author Johanna Thiemich
+ * @version 1.0
+ */
+public final class Main {
+    /**
+     * option to write the loaded graph into a snapshot file
+     */
+    private static final String WRITE_SNAPSHOT = "--write-snapshot";
+    /**
+     * option to read the times of the paths of a DIMACS file out of a second
+     * DIMACS file
+     */
+    private static final String TIME_FILE = "--time-file";
+    /**
+     * option to choose the algorithm that finds the shortest and fastest
+     * routes (see Engine)
+     */
+    private static final String ENGINE = "--engine";
+
+    /**
+     * This class has a private constructor to avoid instantiation
+     */
+    private Main() {
+        // intentionally left blank 
+    }
+
+    /**
+     * The main method runs the program.
+     * 
+     * @param args
+     *            contains the path to the file that contains the serialized
+     *            graph (text or snapshot file, see GraphSnapshotFile, DIMACS
+     *            file ending with ".gr", see DimacsImporter, or edge list ending
+     *            with ".csv", see CsvImporter), optionally followed by
+     *            "--write-snapshot" and the path of a snapshot file the graph is
+     *            written to and/or "--time-file" and the path of a DIMACS file
+     *            containing the times of the paths (only allowed with a
+     *            DIMACS file) and/or "--engine" and the name of the algorithm
+     *            that finds the shortest and fastest routes (see Engine);
+     *            other arguments are rejected
+     */
+    public static void main(String[] args) {
+        // create a new graph out of the serialized text version
+        if (args.length != 0) {
+            try {
+                String snapshotFile = null;
+                String timeFile = null;
+                Engine engine = Engine.HIERARCHY;
+                for (int i = 1; i < args.length; i += 2) {
+                    if (!args[i].equals(WRITE_SNAPSHOT) && !args[i].equals(TIME_FILE) && !args[i].equals(ENGINE)) {
+                        throw new IllegalInputException("Error, unknown option " + args[i] + ". Please choose "
+                                + WRITE_SNAPSHOT + ", " + TIME_FILE + " or " + ENGINE + ".");
+                    } else if (i + 1 == args.length) {
+                        throw new IllegalInputException("Error, the option " + args[i]
+                                + (args[i].equals(ENGINE) ? " needs the name of an engine." : " needs a path."));
+                    } else if (args[i].equals(WRITE_SNAPSHOT)) {
+                        snapshotFile = args[i + 1];
+                    } else if (args[i].equals(TIME_FILE)) {
+                        timeFile = args[i + 1];
+                    } else {
+                        engine = getEngine(args[i + 1]);
+                    }
+                }
+                if (timeFile != null && !args[0].toLowerCase().endsWith(".gr")) {
+                    throw new IllegalInputException("Error, the option " + TIME_FILE
+                            + " is only allowed with a DIMACS file (*.gr).");
+                }
+                Graph graph;
+                if (GraphSnapshotFile.isSnapshot(args[0])) {
+                    // binary snapshot --> nothing has to be parsed or checked
+                    graph = GraphSnapshotFile.read(args[0]);
+                } else if (args[0].toLowerCase().endsWith(".gr")) {
+                    DimacsImporter importer = new DimacsImporter(args[0]);
+                    importer.setTimeFile(timeFile);
+                    graph = importer.importGraph();
+                } else if (args[0].toLowerCase().endsWith(".csv")) {
+                    graph = new CsvImporter(args[0]).importGraph();
+                } else {
+                    GraphBuilder graphBuilder = new GraphBuilder(args[0]);
+                    graph = graphBuilder.finishedGraph();
+                }
+                if (snapshotFile != null) {
+                    GraphSnapshotFile.write(graph, snapshotFile);
+                }
+                UserInteraction act = new UserInteraction(graph, engine);
+                // starts interactive sequence
+                act.interactiveDialog();
+            } catch (IncorrectInputFileException e) {
+                // in case creating the graph fails (incorrect input file)
+                Terminal.printLine(e.getMessage());
+            } catch (IOException e) {
+                // snapshot file cannot be read or written
+                Terminal.printLine("Error, " + e.getMessage());
+            } catch (IllegalInputException e) {
+                // invalid options, the graph has not been loaded
+                Terminal.printLine(e.getMessage());
+            }
+
+        } else {
+            Terminal.printLine("Error, a path to a *.txt file has to be provided. Path has not been found.");
+        }
+        Terminal.flush();
+    }
+
+    /**
+     * This method finds the engine chosen by the user.
+     *
+     * @param pName
+     *            the name of the engine
+     * @return the engine with this name
+     * @throws IllegalInputException
+     *             if there is no engine with this name
+     */
+    private static Engine getEngine(String pName) throws IllegalInputException {
+        Engine engine = Engine.find(pName);
+        if (engine == null) {
+            StringBuilder names = new StringBuilder();
+            for (int i = 0; i < Engine.values().length; i++) {
+                if (i > 0) {
+                    names.append(i < Engine.values().length - 1 ? ", " : " or ");
+                }
+                names.append(Engine.values()[i].getName());
+            }
+            throw new IllegalInputException("Error, unknown engine " + pName + ". Please choose " + names + ".");
+        }
+        return engine;
+    }
+}